@@ -118,7 +118,7 @@ public class Main {
         }
         
         // Read from file
-        try (FileReader reader = new FileReader("exp_function.txt")) {
+        try (BufferedReader reader = new BufferedReader(new FileReader("exp_function.txt"))) {
             TabulatedFunction readExpFunc = TabulatedFunctions.readTabulatedFunction(reader);
             
             System.out.println("Comparison of original and read function:");
@@ -0,0 +1,36 @@
+package functions.bench;
+
+import java.io.IOException;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Запуск набора с параметрами командной строки JMH (java -jar benchmarks.jar -h).
+// Если формат результатов не задан ключом -rf, они записываются в JSON
+// (по умолчанию в файл jmh-result.json, другой файл задаётся ключом -rff) для сравнения между запусками.
+// Ядра SimdKernels (сборка с профилем vector) включаются в замерах ключом
+//     -jvmArgsAppend "--add-modules jdk.incubator.vector -Dfunctions.vector=true"
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+        throw new AssertionError("Cannot instantiate utility class");
+    }
+    
+    public static void main(String[] args) throws IOException, RunnerException, CommandLineOptionException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams()
+            || options.shouldListProfilers() || options.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+        if (!options.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        new Runner(builder.build()).run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package functions.bench;
+
+import functions.TabulatedFunction;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+// getFunctionValue табулированных функций: QUERY_COUNT аргументов за вызов,
+// по возрастанию (проход по всей области) или в случайном порядке
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FunctionValueBenchmark {
+    private static final int QUERY_COUNT = 1024;
+    
+    public enum AccessPattern {
+        SEQUENTIAL, RANDOM
+    }
+    
+    @Param({"ARRAY", "LINKED_LIST"})
+    public Implementation implementation;
+    
+    @Param({"100", "10000", "100000"})
+    public int pointCount;
+    
+    @Param({"SEQUENTIAL", "RANDOM"})
+    public AccessPattern pattern;
+    
+    private TabulatedFunction function;
+    private double[] queries;
+    
+    @Setup
+    public void setUp() {
+        function = implementation.create(pointCount);
+        
+        Random random = new Random(42);
+        queries = new double[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            queries[i] = random.nextDouble() * (pointCount - 1);
+        }
+        if (pattern == AccessPattern.SEQUENTIAL) {
+            Arrays.sort(queries);
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(QUERY_COUNT)
+    public void getFunctionValue(Blackhole blackhole) {
+        for (double x : queries) {
+            blackhole.consume(function.getFunctionValue(x));
+        }
+    }
+}
\ No newline at end of file
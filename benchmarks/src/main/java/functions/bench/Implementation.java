@@ -0,0 +1,63 @@
+package functions.bench;
+
+import functions.ArrayTabulatedFunction;
+import functions.LinkedListTabulatedFunction;
+import functions.OffHeapTabulatedFunction;
+import functions.SkipListTabulatedFunction;
+import functions.TabulatedFunction;
+import functions.UniformTabulatedFunction;
+import functions.UnrolledTabulatedFunction;
+
+// Реализации TabulatedFunction для параметра implementation (-p implementation=UNROLLED)
+public enum Implementation {
+    ARRAY {
+        @Override
+        TabulatedFunction create(double[] xValues, double[] yValues) {
+            return new ArrayTabulatedFunction(xValues, yValues);
+        }
+    },
+    LINKED_LIST {
+        @Override
+        TabulatedFunction create(double[] xValues, double[] yValues) {
+            return new LinkedListTabulatedFunction(xValues, yValues);
+        }
+    },
+    UNIFORM {
+        // Абсциссы заменяются равномерной сеткой на том же отрезке
+        @Override
+        TabulatedFunction create(double[] xValues, double[] yValues) {
+            return new UniformTabulatedFunction(xValues[0], xValues[xValues.length - 1], yValues);
+        }
+    },
+    UNROLLED {
+        @Override
+        TabulatedFunction create(double[] xValues, double[] yValues) {
+            return new UnrolledTabulatedFunction(xValues, yValues);
+        }
+    },
+    SKIP_LIST {
+        @Override
+        TabulatedFunction create(double[] xValues, double[] yValues) {
+            return new SkipListTabulatedFunction(xValues, yValues);
+        }
+    },
+    OFF_HEAP {
+        @Override
+        TabulatedFunction create(double[] xValues, double[] yValues) {
+            return new OffHeapTabulatedFunction(xValues, yValues);
+        }
+    };
+    
+    abstract TabulatedFunction create(double[] xValues, double[] yValues);
+    
+    // Функция sin на точках x = 0, 1, ..., pointCount - 1
+    TabulatedFunction create(int pointCount) {
+        double[] xValues = new double[pointCount];
+        double[] yValues = new double[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            xValues[i] = i;
+            yValues[i] = Math.sin(i);
+        }
+        return create(xValues, yValues);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package functions.bench;
+
+import functions.Function;
+import functions.Functions;
+import functions.basic.Cos;
+import functions.basic.Identity;
+import functions.basic.Sin;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Глубокие деревья functions.meta: каждый уровень добавляет пять узлов, f(x) -> 0.5 * sin(f(x - 0.1)) * cos(x) + x.
+// Дерево вычисляется как есть, после Functions.compile и пакетно через getFunctionValues
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MetaTreeBenchmark {
+    private static final int QUERY_COUNT = 1024;
+    
+    @Param({"4", "16", "64"})
+    public int depth;
+    
+    private Function tree;
+    private Function compiled;
+    private double[] queries;
+    private double[] values;
+    
+    @Setup
+    public void setUp() {
+        Function f = new Identity();
+        for (int level = 0; level < depth; level++) {
+            Function inner = Functions.composition(Functions.shift(f, 0.1, 0), new Sin());
+            f = Functions.sum(Functions.mult(Functions.scale(inner, 1, 0.5), new Cos()), new Identity());
+        }
+        tree = f;
+        compiled = Functions.compile(f);
+        
+        Random random = new Random(42);
+        queries = new double[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            queries[i] = random.nextDouble() * 10 - 5;
+        }
+        values = new double[QUERY_COUNT];
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(QUERY_COUNT)
+    public void interpreted(Blackhole blackhole) {
+        for (double x : queries) {
+            blackhole.consume(tree.getFunctionValue(x));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(QUERY_COUNT)
+    public void compiled(Blackhole blackhole) {
+        for (double x : queries) {
+            blackhole.consume(compiled.getFunctionValue(x));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(QUERY_COUNT)
+    public double[] batch() {
+        tree.getFunctionValues(queries, values);
+        return values;
+    }
+}
\ No newline at end of file
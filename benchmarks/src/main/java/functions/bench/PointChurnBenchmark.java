@@ -0,0 +1,49 @@
+package functions.bench;
+
+import functions.FunctionPoint;
+import functions.InappropriateFunctionPointException;
+import functions.TabulatedFunction;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Вставка точки между соседними узлами и её удаление; число точек между вызовами не меняется
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PointChurnBenchmark {
+    private static final int POSITION_COUNT = 1024;
+    
+    @Param({"ARRAY", "LINKED_LIST"})
+    public Implementation implementation;
+    
+    @Param({"100", "10000", "100000"})
+    public int pointCount;
+    
+    private TabulatedFunction function;
+    private FunctionPoint[] points;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        function = implementation.create(pointCount);
+        
+        Random random = new Random(42);
+        points = new FunctionPoint[POSITION_COUNT];
+        for (int i = 0; i < POSITION_COUNT; i++) {
+            points[i] = new FunctionPoint(random.nextInt(pointCount - 1) + 0.5, random.nextDouble());
+        }
+    }
+    
+    // Точка с абсциссой i + 0.5 получает номер i + 1
+    @Benchmark
+    public void addAndDeletePoint() throws InappropriateFunctionPointException {
+        FunctionPoint point = points[next];
+        next = (next + 1) % POSITION_COUNT;
+        function.addPoint(point);
+        function.deletePoint((int) point.getX() + 1);
+    }
+}
\ No newline at end of file
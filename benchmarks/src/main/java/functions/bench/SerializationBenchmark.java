@@ -0,0 +1,68 @@
+package functions.bench;
+
+import functions.ArrayTabulatedFunction;
+import functions.FunctionPoint;
+import functions.LinkedListTabulatedFunction;
+import functions.TabulatedFunction;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Запись в ObjectOutputStream и обратное чтение: Externalizable-реализации пакета
+// против стандартной сериализации массива FunctionPoint (Serializable)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+    @Param({"100", "100000"})
+    public int pointCount;
+    
+    private ArrayTabulatedFunction array;
+    private LinkedListTabulatedFunction linkedList;
+    private FunctionPoint[] points;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    
+    @Setup
+    public void setUp() {
+        TabulatedFunction function = Implementation.ARRAY.create(pointCount);
+        array = (ArrayTabulatedFunction) function;
+        linkedList = (LinkedListTabulatedFunction) Implementation.LINKED_LIST.create(pointCount);
+        points = new FunctionPoint[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            points[i] = function.getPoint(i);
+        }
+    }
+    
+    private Object roundTrip(Object value) throws IOException, ClassNotFoundException {
+        buffer.reset();
+        try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+            out.writeObject(value);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(buffer.toByteArray()))) {
+            return in.readObject();
+        }
+    }
+    
+    @Benchmark
+    public Object externalizableArray() throws IOException, ClassNotFoundException {
+        return roundTrip(array);
+    }
+    
+    @Benchmark
+    public Object externalizableLinkedList() throws IOException, ClassNotFoundException {
+        return roundTrip(linkedList);
+    }
+    
+    // Функция восстанавливается из прочитанных точек, как при хранении точек объектами
+    @Benchmark
+    public TabulatedFunction serializablePoints() throws IOException, ClassNotFoundException {
+        return new ArrayTabulatedFunction((FunctionPoint[]) roundTrip(points));
+    }
+}
\ No newline at end of file
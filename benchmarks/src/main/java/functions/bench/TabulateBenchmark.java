@@ -0,0 +1,27 @@
+package functions.bench;
+
+import functions.Function;
+import functions.TabulatedFunction;
+import functions.TabulatedFunctions;
+import functions.basic.Sin;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Табулирование sin на отрезке [0, pi]
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TabulateBenchmark {
+    @Param({"1000", "1000000"})
+    public int pointCount;
+    
+    private final Function function = new Sin();
+    
+    @Benchmark
+    public TabulatedFunction tabulate() {
+        return TabulatedFunctions.tabulate(function, 0, Math.PI, pointCount);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package functions.bench;
+
+import functions.TabulatedFunction;
+import functions.TabulatedFunctions;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Запись и чтение табулированной функции в текстовом, двоичном и сжатом форматах (в памяти)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TabulatedIoBenchmark {
+    @Param({"ARRAY", "LINKED_LIST"})
+    public Implementation implementation;
+    
+    @Param({"1000", "1000000"})
+    public int pointCount;
+    
+    private TabulatedFunction function;
+    private String text;
+    private byte[] binary;
+    private byte[] compressed;
+    private CharArrayWriter textOut;
+    private ByteArrayOutputStream binaryOut;
+    
+    @Setup
+    public void setUp() throws IOException {
+        function = implementation.create(pointCount);
+        
+        textOut = new CharArrayWriter();
+        TabulatedFunctions.writeTabulatedFunction(function, textOut);
+        text = textOut.toString();
+        
+        binaryOut = new ByteArrayOutputStream();
+        TabulatedFunctions.outputTabulatedFunction(function, binaryOut);
+        binary = binaryOut.toByteArray();
+        
+        binaryOut.reset();
+        TabulatedFunctions.outputCompressedTabulatedFunction(function, binaryOut);
+        compressed = binaryOut.toByteArray();
+    }
+    
+    @Benchmark
+    public CharArrayWriter writeText() throws IOException {
+        textOut.reset();
+        TabulatedFunctions.writeTabulatedFunction(function, textOut);
+        return textOut;
+    }
+    
+    @Benchmark
+    public TabulatedFunction readText() throws IOException {
+        return TabulatedFunctions.readTabulatedFunction(new StringReader(text));
+    }
+    
+    @Benchmark
+    public ByteArrayOutputStream writeBinary() throws IOException {
+        binaryOut.reset();
+        TabulatedFunctions.outputTabulatedFunction(function, binaryOut);
+        return binaryOut;
+    }
+    
+    @Benchmark
+    public TabulatedFunction readBinary() throws IOException {
+        return TabulatedFunctions.inputTabulatedFunction(new ByteArrayInputStream(binary));
+    }
+    
+    @Benchmark
+    public ByteArrayOutputStream writeCompressed() throws IOException {
+        binaryOut.reset();
+        TabulatedFunctions.outputCompressedTabulatedFunction(function, binaryOut);
+        return binaryOut;
+    }
+    
+    @Benchmark
+    public TabulatedFunction readCompressed() throws IOException {
+        return TabulatedFunctions.inputCompressedTabulatedFunction(new ByteArrayInputStream(compressed));
+    }
+}
\ No newline at end of file
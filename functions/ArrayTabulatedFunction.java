@@ -1,16 +1,21 @@
 package functions;
 
 import java.io.*;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
 
-public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable {
-    private FunctionPoint[] points;
+public class ArrayTabulatedFunction implements TabulatedFunction, DomainStamp.Tracked, Externalizable {
+    // Координаты точек хранятся в параллельных массивах
+    private double[] xValues;
+    private double[] yValues;
     private int pointCount;
     
     private static final long serialVersionUID = 1L;
     
     // Конструктор для Externalizable
     public ArrayTabulatedFunction() {
-        points = new FunctionPoint[10];
+        xValues = new double[10];
+        yValues = new double[10];
         pointCount = 0;
     }
     
@@ -27,10 +32,12 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
         }
         
         this.pointCount = points.length;
-        this.points = new FunctionPoint[pointCount + 10];
+        this.xValues = new double[pointCount + 10];
+        this.yValues = new double[pointCount + 10];
         
         for (int i = 0; i < pointCount; i++) {
-            this.points[i] = (FunctionPoint) points[i].clone();
+            this.xValues[i] = points[i].getX();
+            this.yValues[i] = points[i].getY();
         }
     }
     
@@ -40,16 +47,40 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
         }
         
         this.pointCount = pointCount;
-        this.points = new FunctionPoint[pointCount + 10];
+        this.xValues = new double[pointCount + 10];
+        this.yValues = new double[pointCount + 10];
         
         double step = (rightX - leftX) / (pointCount - 1);
         for (int i = 0; i < pointCount; i++) {
-            double x = leftX + i * step;
-            points[i] = new FunctionPoint(x, 0);
+            xValues[i] = leftX + i * step;
         }
     }
     
     public ArrayTabulatedFunction(double[] xValues, double[] yValues) throws IllegalArgumentException {
+        checkValues(xValues, yValues);
+        
+        this.pointCount = xValues.length;
+        this.xValues = new double[pointCount + 10];
+        this.yValues = new double[pointCount + 10];
+        
+        System.arraycopy(xValues, 0, this.xValues, 0, pointCount);
+        System.arraycopy(yValues, 0, this.yValues, 0, pointCount);
+    }
+    
+    private ArrayTabulatedFunction(double[] xValues, double[] yValues, int pointCount) {
+        this.xValues = xValues;
+        this.yValues = yValues;
+        this.pointCount = pointCount;
+    }
+    
+    // Функция забирает массивы без копирования и проверок: для точек, построенных внутри пакета
+    // или уже проверенных checkValues. Массивы могут быть длиннее pointCount
+    // и после вызова принадлежат функции
+    static ArrayTabulatedFunction wrap(double[] xValues, double[] yValues, int pointCount) {
+        return new ArrayTabulatedFunction(xValues, yValues, pointCount);
+    }
+    
+    static void checkValues(double[] xValues, double[] yValues) throws IllegalArgumentException {
         if (xValues.length < 2 || xValues.length != yValues.length) {
             throw new IllegalArgumentException("Arrays must have same length and at least 2 elements");
         }
@@ -59,13 +90,6 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
                 throw new IllegalArgumentException("X values must be strictly increasing");
             }
         }
-        
-        this.pointCount = xValues.length;
-        this.points = new FunctionPoint[pointCount + 10];
-        
-        for (int i = 0; i < pointCount; i++) {
-            points[i] = new FunctionPoint(xValues[i], yValues[i]);
-        }
     }
     
     private void checkIndex(int index) throws FunctionPointIndexOutOfBoundsException {
@@ -74,47 +98,118 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
         }
     }
     
-    private int findPlaceForX(double x) {
-        for (int i = 0; i < pointCount; i++) {
-            if (FunctionPoint.equals(points[i].getX(), x)) {
-                return -1;
-            }
-            if (points[i].getX() > x) {
-                return i;
+    // Индекс первой точки с абсциссой больше x (двоичный поиск)
+    private int upperBound(double x) {
+        int low = 0;
+        int high = pointCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xValues[mid] > x) {
+                high = mid;
+            } else {
+                low = mid + 1;
             }
         }
-        return pointCount;
+        return low;
+    }
+    
+    private int findPlaceForX(double x) {
+        int position = upperBound(x);
+        
+        if ((position > 0 && FunctionPoint.equals(xValues[position - 1], x)) ||
+            (position < pointCount && FunctionPoint.equals(xValues[position], x))) {
+            return -1;
+        }
+        return position;
     }
     
     // Реализация интерфейса Function (Задание 2)
     @Override
     public double getLeftDomainBorder() {
-        return points[0].getX();
+        return xValues[0];
     }
     
     @Override
     public double getRightDomainBorder() {
-        return points[pointCount - 1].getX();
+        return xValues[pointCount - 1];
     }
     
     @Override
     public double getFunctionValue(double x) {
-        if (x < points[0].getX() || x > points[pointCount - 1].getX()) {
+        if (x < xValues[0] || x > xValues[pointCount - 1]) {
             return Double.NaN;
         }
         
-        for (int i = 0; i < pointCount - 1; i++) {
-            if (x >= points[i].getX() && x <= points[i + 1].getX()) {
-                double x1 = points[i].getX();
-                double y1 = points[i].getY();
-                double x2 = points[i + 1].getX();
-                double y2 = points[i + 1].getY();
-                
-                return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+        return interpolate(segment(x), x);
+    }
+    
+    // Для возрастающих аргументов поиск отрезков идёт одним проходом по таблице
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        double leftX = xValues[0];
+        double rightX = xValues[pointCount - 1];
+        int i = 0;
+        
+        VectorKernels kernels = VectorKernels.get();
+        if (kernels != null) {
+            int[] segments = new int[xs.length];
+            for (int k = 0; k < xs.length; k++) {
+                double x = xs[k];
+                if (!(x < leftX || x > rightX)) {
+                    i = segmentFrom(i, x);
+                }
+                segments[k] = i;
             }
+            kernels.interpolate(xs, out, segments, xValues, yValues, leftX, rightX);
+            return;
         }
         
-        return Double.NaN;
+        for (int k = 0; k < xs.length; k++) {
+            double x = xs[k];
+            if (x < leftX || x > rightX) {
+                out[k] = Double.NaN;
+                continue;
+            }
+            
+            i = segmentFrom(i, x);
+            out[k] = interpolate(i, x);
+        }
+    }
+    
+    // Номер левого конца отрезка, содержащего x
+    private int segment(double x) {
+        return Math.min(Math.max(upperBound(x) - 1, 0), pointCount - 2);
+    }
+    
+    // То же, но поиск начинается с отрезка i: несколько шагов вперёд, иначе двоичный поиск
+    private int segmentFrom(int i, double x) {
+        if (xValues[i] > x) {
+            return segment(x);
+        }
+        
+        for (int steps = 0; i < pointCount - 2 && xValues[i + 1] <= x; steps++) {
+            if (steps == 8) {
+                return segment(x);
+            }
+            i++;
+        }
+        return i;
+    }
+    
+    private double interpolate(int i, double x) {
+        double x1 = xValues[i];
+        double y1 = yValues[i];
+        double x2 = xValues[i + 1];
+        double y2 = yValues[i + 1];
+        
+        if (FunctionPoint.equals(x, x1)) {
+            return y1;
+        }
+        if (FunctionPoint.equals(x, x2)) {
+            return y2;
+        }
+        
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
     }
     
     @Override
@@ -125,37 +220,63 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
     @Override
     public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
         checkIndex(index);
-        return points[index].getX();
+        return xValues[index];
     }
     
     @Override
     public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
         checkIndex(index);
-        return points[index].getY();
+        return yValues[index];
+    }
+    
+    @Override
+    public void copyXs(double[] dst, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        FunctionPointIndexOutOfBoundsException.checkRange(from, length, pointCount);
+        System.arraycopy(xValues, from, dst, 0, length);
+    }
+    
+    @Override
+    public void copyYs(double[] dst, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        FunctionPointIndexOutOfBoundsException.checkRange(from, length, pointCount);
+        System.arraycopy(yValues, from, dst, 0, length);
+    }
+    
+    // Представления массивов без копирования; вставка может заменить массив новым
+    @Override
+    public DoubleBuffer xView() {
+        return DoubleBuffer.wrap(xValues, 0, pointCount).slice().asReadOnlyBuffer();
+    }
+    
+    @Override
+    public DoubleBuffer yView() {
+        return DoubleBuffer.wrap(yValues, 0, pointCount).slice().asReadOnlyBuffer();
     }
     
     @Override
     public void setPointX(int index, double x) throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
         checkIndex(index);
         
-        if ((index > 0 && x <= points[index - 1].getX()) || 
-            (index < pointCount - 1 && x >= points[index + 1].getX())) {
+        if ((index > 0 && x <= xValues[index - 1]) || 
+            (index < pointCount - 1 && x >= xValues[index + 1])) {
             throw new InappropriateFunctionPointException(x);
         }
         
-        points[index].setX(x);
+        xValues[index] = x;
+        if (index == 0 || index == pointCount - 1) {
+            DomainStamp.advance();
+        }
     }
     
     @Override
     public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
         checkIndex(index);
-        points[index].setY(y);
+        yValues[index] = y;
     }
     
     @Override
     public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
         checkIndex(index);
-        return (FunctionPoint) points[index].clone();
+        return new FunctionPoint(xValues[index], yValues[index]);
     }
     
     @Override
@@ -163,12 +284,16 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
         checkIndex(index);
         
         double x = point.getX();
-        if ((index > 0 && x <= points[index - 1].getX()) || 
-            (index < pointCount - 1 && x >= points[index + 1].getX())) {
+        if ((index > 0 && x <= xValues[index - 1]) || 
+            (index < pointCount - 1 && x >= xValues[index + 1])) {
             throw new InappropriateFunctionPointException(x);
         }
         
-        points[index] = (FunctionPoint) point.clone();
+        xValues[index] = x;
+        yValues[index] = point.getY();
+        if (index == 0 || index == pointCount - 1) {
+            DomainStamp.advance();
+        }
     }
     
     @Override
@@ -179,20 +304,43 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
             throw new InappropriateFunctionPointException(point.getX());
         }
         
-        if (pointCount >= points.length) {
-            FunctionPoint[] newArray = new FunctionPoint[points.length * 2];
-            for (int i = 0; i < pointCount; i++) {
-                newArray[i] = points[i];
-            }
-            points = newArray;
+        if (pointCount >= xValues.length) {
+            xValues = Arrays.copyOf(xValues, xValues.length * 2);
+            yValues = Arrays.copyOf(yValues, yValues.length * 2);
         }
         
-        for (int i = pointCount; i > position; i--) {
-            points[i] = points[i - 1];
-        }
+        System.arraycopy(xValues, position, xValues, position + 1, pointCount - position);
+        System.arraycopy(yValues, position, yValues, position + 1, pointCount - position);
         
-        points[position] = (FunctionPoint) point.clone();
+        xValues[position] = point.getX();
+        yValues[position] = point.getY();
         pointCount++;
+        if (position == 0 || position == pointCount - 1) {
+            DomainStamp.advance();
+        }
+    }
+    
+    @Override
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        PointBatch batch = PointBatch.of(xs, ys);
+        batch.checkAgainst(xValues, pointCount);
+        boolean moved = batch.movesBorders(pointCount, xValues[0], xValues[Math.max(pointCount - 1, 0)]);
+        
+        int newCount = pointCount + batch.size();
+        if (newCount > xValues.length) {
+            int capacity = Math.max(newCount, xValues.length * 2);
+            double[] xTarget = new double[capacity];
+            double[] yTarget = new double[capacity];
+            batch.mergeInto(xValues, yValues, pointCount, xTarget, yTarget);
+            xValues = xTarget;
+            yValues = yTarget;
+        } else {
+            batch.mergeInto(xValues, yValues, pointCount, xValues, yValues);
+        }
+        pointCount = newCount;
+        if (moved) {
+            DomainStamp.advance();
+        }
     }
     
     @Override
@@ -203,12 +351,13 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
             throw new IllegalStateException("Cannot delete point: minimum 3 points required");
         }
         
-        for (int i = index; i < pointCount - 1; i++) {
-            points[i] = points[i + 1];
-        }
+        System.arraycopy(xValues, index + 1, xValues, index, pointCount - index - 1);
+        System.arraycopy(yValues, index + 1, yValues, index, pointCount - index - 1);
         
-        points[pointCount - 1] = null;
         pointCount--;
+        if (index == 0 || index == pointCount) {
+            DomainStamp.advance();
+        }
     }
     
     @Override
@@ -217,7 +366,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
         sb.append("{");
         for (int i = 0; i < pointCount; i++) {
             if (i > 0) sb.append(", ");
-            sb.append(points[i]);
+            sb.append(new FunctionPoint(xValues[i], yValues[i]));
         }
         sb.append("}");
         return sb.toString();
@@ -228,19 +377,20 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
     public void writeExternal(ObjectOutput out) throws IOException {
         out.writeInt(pointCount);
         for (int i = 0; i < pointCount; i++) {
-            out.writeDouble(points[i].getX());
-            out.writeDouble(points[i].getY());
+            out.writeDouble(xValues[i]);
+            out.writeDouble(yValues[i]);
         }
     }
     
     @Override
     public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
         pointCount = in.readInt();
-        points = new FunctionPoint[pointCount + 10];
+        xValues = new double[pointCount + 10];
+        yValues = new double[pointCount + 10];
         for (int i = 0; i < pointCount; i++) {
-            double x = in.readDouble();
-            double y = in.readDouble();
-            points[i] = new FunctionPoint(x, y);
+            xValues[i] = in.readDouble();
+            yValues[i] = in.readDouble();
         }
+        DomainStamp.advance();
     }
 }
\ No newline at end of file
@@ -0,0 +1,202 @@
+package functions;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+// Функция, запоминающая вычисленные значения (см. Functions.cached).
+// Значения хранятся в таблице с открытой адресацией по битам аргумента,
+// при заполнении вытесняется запись, выбранная алгоритмом CLOCK.
+// Чтение выполняется без блокировки (оптимистичное чтение StampedLock),
+// вставка и вытеснение — под блокировкой записи.
+// Обёрнутая функция считается неизменной: после изменения табулированной функции
+// внутри неё следует вызвать clear().
+public final class CachedFunction implements Function {
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    
+    private final Function f;
+    private final int capacity;
+    private final int shift;
+    private final int mask;
+    
+    private final long[] keys;
+    private final double[] values;
+    private final boolean[] occupied;
+    // Бит обращения CLOCK; читатели устанавливают его без блокировки
+    private final boolean[] referenced;
+    private int size;
+    private int hand;
+    
+    private final StampedLock lock = new StampedLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    
+    public CachedFunction(Function f, int capacity) throws IllegalArgumentException {
+        if (capacity < 1 || capacity > (1 << 28)) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.f = f;
+        this.capacity = capacity;
+        // Заполнение таблицы не превышает половины
+        int length = Integer.highestOneBit(2 * capacity - 1) << 1;
+        this.shift = 64 - Integer.numberOfTrailingZeros(length);
+        this.mask = length - 1;
+        this.keys = new long[length];
+        this.values = new double[length];
+        this.occupied = new boolean[length];
+        this.referenced = new boolean[length];
+    }
+    
+    public Function getFunction() {
+        return f;
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    public long getHitCount() {
+        return hits.sum();
+    }
+    
+    public long getMissCount() {
+        return misses.sum();
+    }
+    
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            Arrays.fill(occupied, false);
+            Arrays.fill(referenced, false);
+            size = 0;
+            hand = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    @Override
+    public double getLeftDomainBorder() {
+        return f.getLeftDomainBorder();
+    }
+    
+    @Override
+    public double getRightDomainBorder() {
+        return f.getRightDomainBorder();
+    }
+    
+    @Override
+    public double getFunctionValue(double x) {
+        long key = Double.doubleToRawLongBits(x);
+        
+        long stamp = lock.tryOptimisticRead();
+        int slot = find(key);
+        double value = (slot >= 0) ? values[slot] : 0;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                slot = find(key);
+                value = (slot >= 0) ? values[slot] : 0;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (slot >= 0) {
+            referenced[slot] = true;
+            hits.increment();
+            return value;
+        }
+        
+        misses.increment();
+        value = f.getFunctionValue(x);
+        insert(key, value);
+        return value;
+    }
+    
+    private int home(long key) {
+        return (int) ((key * GOLDEN) >>> shift);
+    }
+    
+    // Номер ячейки с ключом key или -1; число проб ограничено размером таблицы,
+    // чтобы оптимистичное чтение несогласованного состояния не зациклилось
+    private int find(long key) {
+        int i = home(key);
+        for (int probes = 0; probes <= mask && occupied[i]; probes++) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+    
+    private void insert(long key, double value) {
+        long stamp = lock.writeLock();
+        try {
+            // Значение могло быть добавлено другим потоком
+            if (find(key) >= 0) {
+                return;
+            }
+            if (size == capacity) {
+                evict();
+            }
+            int i = home(key);
+            while (occupied[i]) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            referenced[i] = false;
+            occupied[i] = true;
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    // CLOCK: стрелка снимает биты обращения, пока не найдёт запись без него
+    private void evict() {
+        while (true) {
+            if (occupied[hand]) {
+                if (!referenced[hand]) {
+                    remove(hand);
+                    return;
+                }
+                referenced[hand] = false;
+            }
+            hand = (hand + 1) & mask;
+        }
+    }
+    
+    // Удаление со сдвигом назад: последующие записи цепочки переносятся в освободившуюся ячейку
+    private void remove(int i) {
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (!occupied[j]) {
+                break;
+            }
+            int k = home(keys[j]);
+            // Запись остаётся на месте, если её начальная ячейка лежит циклически в (i, j]
+            boolean stays = (i <= j) ? (i < k && k <= j) : (i < k || k <= j);
+            if (!stays) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                referenced[i] = referenced[j];
+                i = j;
+            }
+        }
+        occupied[i] = false;
+        referenced[i] = false;
+        size--;
+    }
+}
\ No newline at end of file
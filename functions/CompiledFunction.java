@@ -0,0 +1,78 @@
+package functions;
+
+import java.lang.invoke.MethodHandle;
+
+// Результат Functions.compile: функция, вычисляемая одной цепочкой MethodHandle.
+// Если в дереве есть табулированные функции пакета functions, цепочка собирается заново
+// после изменения DomainStamp; границы остальных функций проверяются при каждом вызове.
+final class CompiledFunction implements Function {
+    // Цепочка вместе с границами и значением счётчика, при котором она собрана
+    private static final class Snapshot {
+        final MethodHandle target;
+        final double leftX;
+        final double rightX;
+        final long stamp;
+        
+        Snapshot(MethodHandle target, double leftX, double rightX, long stamp) {
+            this.target = target;
+            this.leftX = leftX;
+            this.rightX = rightX;
+            this.stamp = stamp;
+        }
+    }
+    
+    private final Function source;
+    private final int kind;
+    private volatile Snapshot snapshot;
+    
+    CompiledFunction(Function source) {
+        this.source = source;
+        this.kind = FunctionCompiler.kindOf(source);
+        this.snapshot = build();
+    }
+    
+    private Snapshot build() {
+        // Счётчик читается до компиляции: изменение во время неё вызовет повторную сборку
+        long stamp = DomainStamp.current();
+        return new Snapshot(FunctionCompiler.compile(source),
+                            source.getLeftDomainBorder(), source.getRightDomainBorder(), stamp);
+    }
+    
+    private Snapshot snapshot() {
+        Snapshot s = snapshot;
+        if (kind != FunctionCompiler.FIXED && s.stamp != DomainStamp.current()) {
+            s = build();
+            snapshot = s;
+        }
+        return s;
+    }
+    
+    int getKind() {
+        return kind;
+    }
+    
+    MethodHandle getTarget() {
+        return snapshot().target;
+    }
+    
+    @Override
+    public double getLeftDomainBorder() {
+        return (kind == FunctionCompiler.UNTRACKED) ? source.getLeftDomainBorder() : snapshot().leftX;
+    }
+    
+    @Override
+    public double getRightDomainBorder() {
+        return (kind == FunctionCompiler.UNTRACKED) ? source.getRightDomainBorder() : snapshot().rightX;
+    }
+    
+    @Override
+    public double getFunctionValue(double x) {
+        try {
+            return (double) snapshot().target.invokeExact(x);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
\ No newline at end of file
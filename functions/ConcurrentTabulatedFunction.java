@@ -0,0 +1,166 @@
+package functions;
+
+import java.nio.DoubleBuffer;
+
+// Табулированная функция для общего доступа из многих потоков: копирование при записи.
+// Точки хранятся в ArrayTabulatedFunction, которая после публикации не меняется;
+// читатели берут текущую копию из volatile-поля и никогда не блокируются,
+// а каждый вызов видит согласованный набор точек. Изменения выполняются по одному
+// (synchronized) над новой копией и публикуются одной записью ссылки,
+// поэтому каждое изменение стоит O(n) — вариант для редко обновляемых таблиц.
+// Последовательность вызовов (getPointCount, затем getPointX) может попасть на разные копии;
+// для согласованного чтения нескольких точек служит snapshot().
+public final class ConcurrentTabulatedFunction implements TabulatedFunction, DomainStamp.Tracked {
+    private static final long serialVersionUID = 1L;
+    
+    private volatile ArrayTabulatedFunction current;
+    
+    public ConcurrentTabulatedFunction(TabulatedFunction source) throws IllegalArgumentException {
+        int pointCount = source.getPointCount();
+        double[] xValues = new double[pointCount];
+        double[] yValues = new double[pointCount];
+        source.copyXs(xValues, 0, pointCount);
+        source.copyYs(yValues, 0, pointCount);
+        ArrayTabulatedFunction.checkValues(xValues, yValues);
+        this.current = ArrayTabulatedFunction.wrap(xValues, yValues, pointCount);
+    }
+    
+    // Копия опубликованной функции: её точки уже проверены и копируются без повторной проверки
+    private static ArrayTabulatedFunction copyOf(ArrayTabulatedFunction source) {
+        int pointCount = source.getPointCount();
+        double[] xValues = new double[pointCount];
+        double[] yValues = new double[pointCount];
+        source.copyXs(xValues, 0, pointCount);
+        source.copyYs(yValues, 0, pointCount);
+        return ArrayTabulatedFunction.wrap(xValues, yValues, pointCount);
+    }
+    
+    // Независимая копия точек на один момент времени
+    public TabulatedFunction snapshot() {
+        return copyOf(current);
+    }
+    
+    // Публикация изменённой копии; счётчик областей определения увеличивается уже после неё,
+    // чтобы мета-функции не сохранили старые границы с новым значением счётчика
+    private void publish(ArrayTabulatedFunction next) {
+        ArrayTabulatedFunction previous = current;
+        current = next;
+        if (previous.getLeftDomainBorder() != next.getLeftDomainBorder()
+            || previous.getRightDomainBorder() != next.getRightDomainBorder()) {
+            DomainStamp.advance();
+        }
+    }
+    
+    @Override
+    public double getLeftDomainBorder() {
+        return current.getLeftDomainBorder();
+    }
+    
+    @Override
+    public double getRightDomainBorder() {
+        return current.getRightDomainBorder();
+    }
+    
+    @Override
+    public double getFunctionValue(double x) {
+        return current.getFunctionValue(x);
+    }
+    
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        current.getFunctionValues(xs, out);
+    }
+    
+    @Override
+    public int getPointCount() {
+        return current.getPointCount();
+    }
+    
+    @Override
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        return current.getPointX(index);
+    }
+    
+    @Override
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        return current.getPointY(index);
+    }
+    
+    @Override
+    public void copyXs(double[] dst, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        current.copyXs(dst, from, length);
+    }
+    
+    @Override
+    public void copyYs(double[] dst, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        current.copyYs(dst, from, length);
+    }
+    
+    @Override
+    public void copyPoints(double[] xs, double[] ys, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        current.copyPoints(xs, ys, from, length);
+    }
+    
+    // Опубликованная копия не меняется, поэтому её представления согласованы и без копирования
+    @Override
+    public DoubleBuffer xView() {
+        return current.xView();
+    }
+    
+    @Override
+    public DoubleBuffer yView() {
+        return current.yView();
+    }
+    
+    @Override
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        return current.getPoint(index);
+    }
+    
+    @Override
+    public synchronized void setPointX(int index, double x) throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        ArrayTabulatedFunction next = copyOf(current);
+        next.setPointX(index, x);
+        publish(next);
+    }
+    
+    @Override
+    public synchronized void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        ArrayTabulatedFunction next = copyOf(current);
+        next.setPointY(index, y);
+        publish(next);
+    }
+    
+    @Override
+    public synchronized void setPoint(int index, FunctionPoint point) throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        ArrayTabulatedFunction next = copyOf(current);
+        next.setPoint(index, point);
+        publish(next);
+    }
+    
+    @Override
+    public synchronized void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        ArrayTabulatedFunction next = copyOf(current);
+        next.addPoint(point);
+        publish(next);
+    }
+    
+    @Override
+    public synchronized void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        ArrayTabulatedFunction next = copyOf(current);
+        next.addPoints(xs, ys);
+        publish(next);
+    }
+    
+    @Override
+    public synchronized void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        ArrayTabulatedFunction next = copyOf(current);
+        next.deletePoint(index);
+        publish(next);
+    }
+    
+    @Override
+    public String toString() {
+        return current.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package functions;
+
+import functions.basic.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Глобальный счётчик изменений областей определения.
+// Табулированные функции этого пакета увеличивают его после каждого изменения,
+// которое может сдвинуть крайние точки; мета-функции сравнивают с ним
+// значение, при котором были вычислены сохранённые границы.
+public final class DomainStamp {
+    private static final AtomicLong STAMP = new AtomicLong();
+    
+    // Отметка классов пакета, которые вызывают advance() после каждого изменения,
+    // способного сдвинуть крайние точки
+    interface Tracked {
+    }
+    
+    // Отметка классов пакета, область определения которых не меняется никогда
+    interface Fixed {
+    }
+    
+    private DomainStamp() {
+        throw new AssertionError("Cannot instantiate utility class");
+    }
+    
+    public static long current() {
+        return STAMP.get();
+    }
+    
+    static void advance() {
+        STAMP.incrementAndGet();
+    }
+    
+    // Область определения функции не меняется никогда
+    public static boolean isFixed(Function function) {
+        Class<?> type = function.getClass();
+        if (type == CompiledFunction.class) {
+            return ((CompiledFunction) function).getKind() == FunctionCompiler.FIXED;
+        }
+        return type == Sin.class || type == Cos.class || type == Tan.class
+            || type == Exp.class || type == Log.class || type == Identity.class
+            || (function instanceof Fixed && isOwn(function));
+    }
+    
+    // Каждое изменение области определения функции отражается в счётчике
+    public static boolean isTracked(Function function) {
+        if (function.getClass() == CompiledFunction.class) {
+            return ((CompiledFunction) function).getKind() != FunctionCompiler.UNTRACKED;
+        }
+        return isFixed(function) || (function instanceof Tracked && isOwn(function));
+    }
+    
+    // Отметки наследуются, но подклассы из других пакетов могут менять точки
+    // в обход счётчика, поэтому учитываются только классы этого пакета
+    private static boolean isOwn(Function function) {
+        return function.getClass().getPackageName().equals(DomainStamp.class.getPackageName());
+    }
+}
\ No newline at end of file
@@ -4,4 +4,11 @@ public interface Function {
     double getLeftDomainBorder();
     double getRightDomainBorder();
     double getFunctionValue(double x);
+    
+    // Значения функции сразу для всех аргументов xs; массив out может совпадать с xs
+    default void getFunctionValues(double[] xs, double[] out) {
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = getFunctionValue(xs[i]);
+        }
+    }
 }
\ No newline at end of file
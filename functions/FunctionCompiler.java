@@ -0,0 +1,213 @@
+package functions;
+
+import functions.basic.*;
+import functions.meta.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+// Перевод дерева функций в одну цепочку MethodHandle (см. Functions.compile).
+// Узлы meta и basic заменяются прямыми арифметическими операциями и вызовами Math,
+// границы неизменных и отслеживаемых через DomainStamp функций подставляются константами
+// (CompiledFunction собирает цепочку заново после изменения счётчика),
+// границы остальных функций читаются при каждом вызове.
+// Остальные функции (табулированные и пользовательские) вызываются через getFunctionValue.
+final class FunctionCompiler {
+    // Виды деревьев: области определения неизменны, отслеживаются DomainStamp, не отслеживаются
+    static final int FIXED = 0;
+    static final int TRACKED = 1;
+    static final int UNTRACKED = 2;
+    
+    private static final MethodType UNARY = MethodType.methodType(double.class, double.class);
+    private static final MethodType BINARY = MethodType.methodType(double.class, double.class, double.class);
+    
+    private static final MethodHandle ADD;
+    private static final MethodHandle SUB;
+    private static final MethodHandle MUL;
+    private static final MethodHandle DIV;
+    private static final MethodHandle POW;
+    private static final MethodHandle LOG;
+    private static final MethodHandle IN_DOMAIN;
+    private static final MethodHandle IN_CURRENT_DOMAIN;
+    private static final MethodHandle NAN;
+    private static final MethodHandle GET_FUNCTION_VALUE;
+    
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            ADD = lookup.findStatic(FunctionCompiler.class, "add", BINARY);
+            SUB = lookup.findStatic(FunctionCompiler.class, "sub", BINARY);
+            MUL = lookup.findStatic(FunctionCompiler.class, "mul", BINARY);
+            DIV = lookup.findStatic(FunctionCompiler.class, "div", BINARY);
+            POW = lookup.findStatic(Math.class, "pow", BINARY);
+            LOG = lookup.findStatic(FunctionCompiler.class, "log", BINARY);
+            IN_DOMAIN = lookup.findStatic(FunctionCompiler.class, "inDomain",
+                MethodType.methodType(boolean.class, double.class, double.class, double.class));
+            IN_CURRENT_DOMAIN = lookup.findStatic(FunctionCompiler.class, "inCurrentDomain",
+                MethodType.methodType(boolean.class, Function.class, double.class));
+            NAN = MethodHandles.dropArguments(MethodHandles.constant(double.class, Double.NaN), 0, double.class);
+            GET_FUNCTION_VALUE = lookup.findVirtual(Function.class, "getFunctionValue", UNARY);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+    
+    private FunctionCompiler() {
+        throw new AssertionError("Cannot instantiate utility class");
+    }
+    
+    private static double add(double a, double b) {
+        return a + b;
+    }
+    
+    private static double sub(double a, double b) {
+        return a - b;
+    }
+    
+    private static double mul(double a, double b) {
+        return a * b;
+    }
+    
+    private static double div(double a, double b) {
+        return a / b;
+    }
+    
+    private static double log(double logBase, double x) {
+        if (x <= 0) {
+            return Double.NaN;
+        }
+        return Math.log(x) / logBase;
+    }
+    
+    private static boolean inDomain(double left, double right, double x) {
+        return !(x < left || x > right);
+    }
+    
+    private static boolean inCurrentDomain(Function function, double x) {
+        return !(x < function.getLeftDomainBorder() || x > function.getRightDomainBorder());
+    }
+    
+    // Вид дерева function: наибольший из видов его узлов
+    static int kindOf(Function function) {
+        Class<?> type = function.getClass();
+        
+        if (type == CompiledFunction.class) {
+            return ((CompiledFunction) function).getKind();
+        }
+        if (type == Sum.class) {
+            Sum sum = (Sum) function;
+            return Math.max(kindOf(sum.getFirstFunction()), kindOf(sum.getSecondFunction()));
+        }
+        if (type == Mult.class) {
+            Mult mult = (Mult) function;
+            return Math.max(kindOf(mult.getFirstFunction()), kindOf(mult.getSecondFunction()));
+        }
+        if (type == Power.class) {
+            return kindOf(((Power) function).getFunction());
+        }
+        if (type == Shift.class) {
+            return kindOf(((Shift) function).getFunction());
+        }
+        if (type == Scale.class) {
+            return kindOf(((Scale) function).getFunction());
+        }
+        if (type == Composition.class) {
+            Composition composition = (Composition) function;
+            return Math.max(kindOf(composition.getFirstFunction()), kindOf(composition.getSecondFunction()));
+        }
+        
+        if (DomainStamp.isFixed(function)) {
+            return FIXED;
+        }
+        return DomainStamp.isTracked(function) ? TRACKED : UNTRACKED;
+    }
+    
+    // Обработчик типа (double)double, вычисляющий function
+    static MethodHandle compile(Function function) {
+        Class<?> type = function.getClass();
+        
+        if (type == CompiledFunction.class) {
+            return ((CompiledFunction) function).getTarget();
+        }
+        if (type == Sum.class) {
+            Sum sum = (Sum) function;
+            return guard(function, both(ADD, compile(sum.getFirstFunction()), compile(sum.getSecondFunction())));
+        }
+        if (type == Mult.class) {
+            Mult mult = (Mult) function;
+            return guard(function, both(MUL, compile(mult.getFirstFunction()), compile(mult.getSecondFunction())));
+        }
+        if (type == Power.class) {
+            Power power = (Power) function;
+            return guard(function, MethodHandles.filterReturnValue(compile(power.getFunction()),
+                                                                   right(POW, power.getPower())));
+        }
+        if (type == Shift.class) {
+            Shift shift = (Shift) function;
+            Function f = shift.getFunction();
+            MethodHandle inner = guard(f, MethodHandles.filterReturnValue(compile(f), right(ADD, shift.getShiftY())));
+            return MethodHandles.filterArguments(inner, 0, right(SUB, shift.getShiftX()));
+        }
+        if (type == Scale.class) {
+            Scale scale = (Scale) function;
+            Function f = scale.getFunction();
+            MethodHandle inner = guard(f, MethodHandles.filterReturnValue(compile(f), right(MUL, scale.getScaleY())));
+            return MethodHandles.filterArguments(inner, 0, right(DIV, scale.getScaleX()));
+        }
+        if (type == Composition.class) {
+            Composition composition = (Composition) function;
+            return guard(function, MethodHandles.filterReturnValue(compile(composition.getFirstFunction()),
+                                                                   compile(composition.getSecondFunction())));
+        }
+        
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            if (type == Sin.class) {
+                return lookup.findStatic(Math.class, "sin", UNARY);
+            }
+            if (type == Cos.class) {
+                return lookup.findStatic(Math.class, "cos", UNARY);
+            }
+            if (type == Tan.class) {
+                return lookup.findStatic(Math.class, "tan", UNARY);
+            }
+            if (type == Exp.class) {
+                return lookup.findStatic(Math.class, "exp", UNARY);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+        if (type == Identity.class) {
+            return MethodHandles.identity(double.class);
+        }
+        if (type == Log.class) {
+            return MethodHandles.insertArguments(LOG, 0, Math.log(((Log) function).getBase()));
+        }
+        
+        return GET_FUNCTION_VALUE.bindTo(function);
+    }
+    
+    // x -> operation(x, value)
+    private static MethodHandle right(MethodHandle operation, double value) {
+        return MethodHandles.insertArguments(operation, 1, value);
+    }
+    
+    // x -> operation(f1(x), f2(x))
+    private static MethodHandle both(MethodHandle operation, MethodHandle f1, MethodHandle f2) {
+        MethodHandle combined = MethodHandles.filterArguments(operation, 0, f1, f2);
+        return MethodHandles.permuteArguments(combined, UNARY, 0, 0);
+    }
+    
+    // NaN вне области определения function; для всей прямой проверка не нужна
+    private static MethodHandle guard(Function function, MethodHandle target) {
+        if (kindOf(function) == UNTRACKED) {
+            return MethodHandles.guardWithTest(IN_CURRENT_DOMAIN.bindTo(function), target, NAN);
+        }
+        double left = function.getLeftDomainBorder();
+        double right = function.getRightDomainBorder();
+        if (left == Double.NEGATIVE_INFINITY && right == Double.POSITIVE_INFINITY) {
+            return target;
+        }
+        return MethodHandles.guardWithTest(MethodHandles.insertArguments(IN_DOMAIN, 0, left, right), target, NAN);
+    }
+}
\ No newline at end of file
@@ -12,4 +12,12 @@ public class FunctionPointIndexOutOfBoundsException extends IndexOutOfBoundsExce
     public FunctionPointIndexOutOfBoundsException(int index) {
         super("Function point index out of bounds: " + index);
     }
+    
+    // Проверка диапазона точек from..from+length-1 при числе точек count
+    static void checkRange(int from, int length, int count) throws FunctionPointIndexOutOfBoundsException {
+        if (from < 0 || length < 0 || from > count - length) {
+            throw new FunctionPointIndexOutOfBoundsException(
+                "Function point range out of bounds: from " + from + ", length " + length + ", count " + count);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,208 @@
+package functions;
+
+import functions.basic.*;
+import functions.meta.*;
+
+// Упрощение деревьев функций (см. Functions.simplify).
+// Дерево переписывается снизу вверх, исходные узлы не изменяются.
+// Все правила сохраняют область определения узла; значения совпадают
+// с исходными с точностью до округления, кроме log_b(e^x) -> x / ln(b) при |x| больше примерно 709:
+// там e^x переполняется (исходное дерево даёт Infinity) или исчезает (NaN, а от -708 до -745 —
+// потеря точности в субнормальных числах), а упрощённое возвращает x / ln(b).
+final class FunctionSimplifier {
+    private FunctionSimplifier() {
+        throw new AssertionError("Cannot instantiate utility class");
+    }
+    
+    // Правила собирают новый корень только из уже упрощённых поддеревьев,
+    // поэтому после переписывания проверяется лишь сам корень
+    static Function simplify(Function function) {
+        Function current = simplifyChildren(function);
+        Function next = rewrite(current);
+        while (next != current) {
+            current = next;
+            next = rewrite(current);
+        }
+        return current;
+    }
+    
+    // Узел с упрощёнными поддеревьями; если они не изменились, возвращается тот же объект
+    private static Function simplifyChildren(Function function) {
+        Class<?> type = function.getClass();
+        
+        if (type == Sum.class) {
+            Sum sum = (Sum) function;
+            Function f1 = simplify(sum.getFirstFunction());
+            Function f2 = simplify(sum.getSecondFunction());
+            return (f1 == sum.getFirstFunction() && f2 == sum.getSecondFunction()) ? function : new Sum(f1, f2);
+        }
+        if (type == Mult.class) {
+            Mult mult = (Mult) function;
+            Function f1 = simplify(mult.getFirstFunction());
+            Function f2 = simplify(mult.getSecondFunction());
+            return (f1 == mult.getFirstFunction() && f2 == mult.getSecondFunction()) ? function : new Mult(f1, f2);
+        }
+        if (type == Composition.class) {
+            Composition composition = (Composition) function;
+            Function f1 = simplify(composition.getFirstFunction());
+            Function f2 = simplify(composition.getSecondFunction());
+            return (f1 == composition.getFirstFunction() && f2 == composition.getSecondFunction())
+                ? function : new Composition(f1, f2);
+        }
+        if (type == Power.class) {
+            Power power = (Power) function;
+            Function f = simplify(power.getFunction());
+            return (f == power.getFunction()) ? function : new Power(f, power.getPower());
+        }
+        if (type == Shift.class) {
+            Shift shift = (Shift) function;
+            Function f = simplify(shift.getFunction());
+            return (f == shift.getFunction()) ? function : new Shift(f, shift.getShiftX(), shift.getShiftY());
+        }
+        if (type == Scale.class) {
+            Scale scale = (Scale) function;
+            Function f = simplify(scale.getFunction());
+            return (f == scale.getFunction()) ? function : new Scale(f, scale.getScaleX(), scale.getScaleY());
+        }
+        return function;
+    }
+    
+    // Одно правило, применённое к корню; если ни одно не подходит, возвращается тот же объект
+    private static Function rewrite(Function function) {
+        Class<?> type = function.getClass();
+        
+        if (type == Power.class) {
+            Power power = (Power) function;
+            Function f = power.getFunction();
+            // f^1 = f
+            if (power.getPower() == 1) {
+                return f;
+            }
+            // (f^a)^b = f^(a*b) для целых a и b
+            if (f.getClass() == Power.class && isInteger(power.getPower())
+                    && isInteger(((Power) f).getPower())) {
+                Power inner = (Power) f;
+                return new Power(inner.getFunction(), inner.getPower() * power.getPower());
+            }
+        }
+        
+        if (type == Shift.class) {
+            Shift shift = (Shift) function;
+            Function f = shift.getFunction();
+            if (shift.getShiftX() == 0 && shift.getShiftY() == 0) {
+                return f;
+            }
+            if (f.getClass() == Shift.class) {
+                Shift inner = (Shift) f;
+                return new Shift(inner.getFunction(),
+                                 inner.getShiftX() + shift.getShiftX(),
+                                 inner.getShiftY() + shift.getShiftY());
+            }
+        }
+        
+        if (type == Scale.class) {
+            Scale scale = (Scale) function;
+            Function f = scale.getFunction();
+            if (scale.getScaleX() == 1 && scale.getScaleY() == 1) {
+                return f;
+            }
+            // Нулевые и бесконечные коэффициенты не объединяются: произведение теряет информацию
+            if (f.getClass() == Scale.class && isRegular(scale.getScaleX()) && isRegular(scale.getScaleY())) {
+                Scale inner = (Scale) f;
+                if (isRegular(inner.getScaleX()) && isRegular(inner.getScaleY())) {
+                    return new Scale(inner.getFunction(),
+                                     inner.getScaleX() * scale.getScaleX(),
+                                     inner.getScaleY() * scale.getScaleY());
+                }
+            }
+        }
+        
+        if (type == Sum.class) {
+            Sum sum = (Sum) function;
+            // f + f = 2f
+            if (sameTree(sum.getFirstFunction(), sum.getSecondFunction())) {
+                return new Scale(sum.getFirstFunction(), 1, 2);
+            }
+        }
+        
+        if (type == Mult.class) {
+            Mult mult = (Mult) function;
+            // f * f = f^2
+            if (sameTree(mult.getFirstFunction(), mult.getSecondFunction())) {
+                return new Power(mult.getFirstFunction(), 2);
+            }
+        }
+        
+        if (type == Composition.class) {
+            Composition composition = (Composition) function;
+            Function f1 = composition.getFirstFunction();
+            Function f2 = composition.getSecondFunction();
+            // log_b(e^x) = x / ln(b), область определения — вся прямая; за пределами диапазона exp
+            // результат конечен, хотя исходное дерево даёт Infinity или NaN (см. заголовок)
+            if (f1.getClass() == Exp.class && f2.getClass() == Log.class) {
+                double base = ((Log) f2).getBase();
+                if (base == Math.E) {
+                    return new Identity();
+                }
+                return new Scale(new Identity(), 1, 1 / Math.log(base));
+            }
+            // g(f(x)) = f(x) при тождественной g
+            if (f2.getClass() == Identity.class) {
+                return f1;
+            }
+        }
+        
+        return function;
+    }
+    
+    private static boolean isInteger(double value) {
+        return value == Math.rint(value) && !Double.isInfinite(value);
+    }
+    
+    private static boolean isRegular(double value) {
+        return value != 0 && !Double.isInfinite(value) && !Double.isNaN(value);
+    }
+    
+    // Структурное равенство деревьев; табулированные и прочие функции сравниваются по ссылке
+    static boolean sameTree(Function a, Function b) {
+        if (a == b) {
+            return true;
+        }
+        Class<?> type = a.getClass();
+        if (type != b.getClass()) {
+            return false;
+        }
+        
+        if (type == Sum.class) {
+            return sameTree(((Sum) a).getFirstFunction(), ((Sum) b).getFirstFunction())
+                && sameTree(((Sum) a).getSecondFunction(), ((Sum) b).getSecondFunction());
+        }
+        if (type == Mult.class) {
+            return sameTree(((Mult) a).getFirstFunction(), ((Mult) b).getFirstFunction())
+                && sameTree(((Mult) a).getSecondFunction(), ((Mult) b).getSecondFunction());
+        }
+        if (type == Composition.class) {
+            return sameTree(((Composition) a).getFirstFunction(), ((Composition) b).getFirstFunction())
+                && sameTree(((Composition) a).getSecondFunction(), ((Composition) b).getSecondFunction());
+        }
+        if (type == Power.class) {
+            return ((Power) a).getPower() == ((Power) b).getPower()
+                && sameTree(((Power) a).getFunction(), ((Power) b).getFunction());
+        }
+        if (type == Shift.class) {
+            return ((Shift) a).getShiftX() == ((Shift) b).getShiftX()
+                && ((Shift) a).getShiftY() == ((Shift) b).getShiftY()
+                && sameTree(((Shift) a).getFunction(), ((Shift) b).getFunction());
+        }
+        if (type == Scale.class) {
+            return ((Scale) a).getScaleX() == ((Scale) b).getScaleX()
+                && ((Scale) a).getScaleY() == ((Scale) b).getScaleY()
+                && sameTree(((Scale) a).getFunction(), ((Scale) b).getFunction());
+        }
+        if (type == Log.class) {
+            return ((Log) a).getBase() == ((Log) b).getBase();
+        }
+        return type == Sin.class || type == Cos.class || type == Tan.class
+            || type == Exp.class || type == Identity.class;
+    }
+}
\ No newline at end of file
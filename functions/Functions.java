@@ -30,4 +30,26 @@ public final class Functions {
     public static Function composition(Function f1, Function f2) {
         return new Composition(f1, f2);
     }
+    
+    // Упрощение дерева: сворачивание вложенных Shift, Scale и Power, удаление тождественных
+    // преобразований (нулевой Shift, единичный Scale, f^1, Identity после f: Identity(f(x)) -> f(x)),
+    // f + f -> 2f, f * f -> f^2, log_b(e^x) -> x / ln(b).
+    // Область определения сохраняется, исходное дерево не изменяется. Значения совпадают
+    // с точностью до округления, кроме log_b(e^x) при |x| > ~709, где e^x выходит за пределы double.
+    public static Function simplify(Function f) {
+        return FunctionSimplifier.simplify(f);
+    }
+    
+    // Обёртка, запоминающая до capacity последних вычисленных значений f
+    public static CachedFunction cached(Function f, int capacity) throws IllegalArgumentException {
+        return new CachedFunction(f, capacity);
+    }
+    
+    // Дерево из Sum, Mult, Power, Shift, Scale, Composition и функций пакета basic
+    // переводится в одну цепочку MethodHandle, которую JIT встраивает целиком.
+    // Результат совпадает с f и после изменения табулированных функций внутри дерева:
+    // при изменении DomainStamp цепочка собирается заново.
+    public static Function compile(Function f) {
+        return new CompiledFunction(f);
+    }
 }
\ No newline at end of file
@@ -1,26 +1,27 @@
 package functions;
 
 import java.io.*;
+import java.util.Arrays;
 
-public class LinkedListTabulatedFunction implements TabulatedFunction, Externalizable {
+public class LinkedListTabulatedFunction implements TabulatedFunction, DomainStamp.Tracked, Externalizable {
+    // Координаты хранятся прямо в узле, без отдельного FunctionPoint
     private static class FunctionNode implements Serializable {
-        FunctionPoint point;
+        double x;
+        double y;
         FunctionNode prev;
         FunctionNode next;
-        
-        FunctionNode(FunctionPoint point) {
-            this.point = point;
-        }
-        
-        FunctionNode() {
-            this.point = null;
-        }
     }
     
+    // Не больше стольких удалённых узлов хранится для повторного использования
+    private static final int FREE_LIST_CAPACITY = 64;
+    
     private FunctionNode head;
     private int size;
     private FunctionNode lastAccessedNode;
     private int lastAccessedIndex;
+    // Удалённые узлы, связанные через next
+    private transient FunctionNode freeNodes;
+    private transient int freeCount;
     
     private static final long serialVersionUID = 1L;
     
@@ -46,7 +47,8 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         
         for (FunctionPoint point : points) {
             FunctionNode newNode = addNodeToTail();
-            newNode.point = (FunctionPoint) point.clone();
+            newNode.x = point.getX();
+            newNode.y = point.getY();
         }
         
         lastAccessedNode = (size > 0) ? head.next : head;
@@ -65,7 +67,8 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         for (int i = 0; i < pointCount; i++) {
             double x = leftX + i * step;
             FunctionNode newNode = addNodeToTail();
-            newNode.point = new FunctionPoint(x, 0);
+            newNode.x = x;
+            newNode.y = 0;
         }
         
         lastAccessedNode = (size > 0) ? head.next : head;
@@ -88,7 +91,8 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         
         for (int i = 0; i < xValues.length; i++) {
             FunctionNode newNode = addNodeToTail();
-            newNode.point = new FunctionPoint(xValues[i], yValues[i]);
+            newNode.x = xValues[i];
+            newNode.y = yValues[i];
         }
         
         lastAccessedNode = (size > 0) ? head.next : head;
@@ -146,8 +150,32 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         return current;
     }
     
+    // Узел из списка удалённых, а если он пуст — новый
+    private FunctionNode newNode() {
+        FunctionNode node = freeNodes;
+        if (node == null) {
+            return new FunctionNode();
+        }
+        freeNodes = node.next;
+        freeCount--;
+        node.next = null;
+        return node;
+    }
+    
+    // Удалённый узел сохраняется для повторного использования, пока список не заполнен
+    private void releaseNode(FunctionNode node) {
+        node.prev = null;
+        if (freeCount < FREE_LIST_CAPACITY) {
+            node.next = freeNodes;
+            freeNodes = node;
+            freeCount++;
+        } else {
+            node.next = null;
+        }
+    }
+    
     private FunctionNode addNodeToTail() {
-        FunctionNode newNode = new FunctionNode();
+        FunctionNode newNode = newNode();
         FunctionNode tail = head.prev;
         
         newNode.prev = tail;
@@ -159,33 +187,6 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         return newNode;
     }
     
-    private FunctionNode addNodeByIndex(int index) throws FunctionPointIndexOutOfBoundsException {
-        if (index < 0 || index > size) {
-            throw new FunctionPointIndexOutOfBoundsException(index);
-        }
-        
-        if (index == size) {
-            return addNodeToTail();
-        }
-        
-        FunctionNode nextNode = getNodeByIndex(index);
-        FunctionNode prevNode = nextNode.prev;
-        
-        FunctionNode newNode = new FunctionNode();
-        newNode.prev = prevNode;
-        newNode.next = nextNode;
-        prevNode.next = newNode;
-        nextNode.prev = newNode;
-        
-        size++;
-        
-        if (index <= lastAccessedIndex) {
-            lastAccessedIndex++;
-        }
-        
-        return newNode;
-    }
-    
     private FunctionNode deleteNodeByIndex(int index) throws FunctionPointIndexOutOfBoundsException {
         if (index < 0 || index >= size) {
             throw new FunctionPointIndexOutOfBoundsException(index);
@@ -201,7 +202,12 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         size--;
         
         if (nodeToDelete == lastAccessedNode) {
-            lastAccessedNode = (nextNode != head) ? nextNode : head.next;
+            if (nextNode != head) {
+                lastAccessedNode = nextNode;
+            } else {
+                lastAccessedNode = head.next;
+                lastAccessedIndex = 0;
+            }
         } else if (index < lastAccessedIndex) {
             lastAccessedIndex--;
         }
@@ -212,39 +218,77 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
     // Реализация интерфейса Function (Задание 2)
     @Override
     public double getLeftDomainBorder() {
-        return (size > 0) ? head.next.point.getX() : Double.NaN;
+        return (size > 0) ? head.next.x : Double.NaN;
     }
     
     @Override
     public double getRightDomainBorder() {
-        return (size > 0) ? head.prev.point.getX() : Double.NaN;
+        return (size > 0) ? head.prev.x : Double.NaN;
     }
     
     @Override
     public double getFunctionValue(double x) {
-        if (size == 0 || x < head.next.point.getX() || x > head.prev.point.getX()) {
+        if (size == 0 || x < head.next.x || x > head.prev.x) {
             return Double.NaN;
         }
         
+        return interpolate(findSegmentNode(x), x);
+    }
+    
+    // Для возрастающих аргументов курсор проходит список один раз
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (size == 0) {
+            Arrays.fill(out, 0, xs.length, Double.NaN);
+            return;
+        }
+        
+        double leftX = head.next.x;
+        double rightX = head.prev.x;
+        
+        for (int k = 0; k < xs.length; k++) {
+            double x = xs[k];
+            out[k] = (x < leftX || x > rightX) ? Double.NaN : interpolate(findSegmentNode(x), x);
+        }
+    }
+    
+    // Узел левого конца отрезка, содержащего x; поиск начинается с последнего посещённого узла
+    private FunctionNode findSegmentNode(double x) {
         FunctionNode current = head.next;
-        while (current != head) {
-            if (FunctionPoint.equals(current.point.getX(), x)) {
-                return current.point.getY();
-            }
-            
-            if (current.next != head && x >= current.point.getX() && x <= current.next.point.getX()) {
-                double x1 = current.point.getX();
-                double y1 = current.point.getY();
-                double x2 = current.next.point.getX();
-                double y2 = current.next.point.getY();
-                
-                return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
-            }
-            
+        int index = 0;
+        if (lastAccessedNode != head && lastAccessedIndex != -1) {
+            current = lastAccessedNode;
+            index = lastAccessedIndex;
+        }
+        
+        while (current.prev != head && current.x > x) {
+            current = current.prev;
+            index--;
+        }
+        while (current.next != head && current.next.x < x) {
             current = current.next;
+            index++;
+        }
+        
+        lastAccessedNode = current;
+        lastAccessedIndex = index;
+        return current;
+    }
+    
+    private double interpolate(FunctionNode node, double x) {
+        if (FunctionPoint.equals(node.x, x) || node.next == head) {
+            return node.y;
         }
+        if (FunctionPoint.equals(node.next.x, x)) {
+            return node.next.y;
+        }
+        
+        double x1 = node.x;
+        double y1 = node.y;
+        double x2 = node.next.x;
+        double y2 = node.next.y;
         
-        return Double.NaN;
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
     }
     
     @Override
@@ -254,34 +298,79 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
     
     @Override
     public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
-        return getNodeByIndex(index).point.getX();
+        return getNodeByIndex(index).x;
     }
     
     @Override
     public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
-        return getNodeByIndex(index).point.getY();
+        return getNodeByIndex(index).y;
+    }
+    
+    // Один проход по списку от узла from
+    @Override
+    public void copyXs(double[] dst, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        FunctionPointIndexOutOfBoundsException.checkRange(from, length, size);
+        if (length == 0) {
+            return;
+        }
+        FunctionNode current = getNodeByIndex(from);
+        for (int i = 0; i < length; i++) {
+            dst[i] = current.x;
+            current = current.next;
+        }
+    }
+    
+    @Override
+    public void copyYs(double[] dst, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        FunctionPointIndexOutOfBoundsException.checkRange(from, length, size);
+        if (length == 0) {
+            return;
+        }
+        FunctionNode current = getNodeByIndex(from);
+        for (int i = 0; i < length; i++) {
+            dst[i] = current.y;
+            current = current.next;
+        }
+    }
+    
+    @Override
+    public void copyPoints(double[] xs, double[] ys, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        FunctionPointIndexOutOfBoundsException.checkRange(from, length, size);
+        if (length == 0) {
+            return;
+        }
+        FunctionNode current = getNodeByIndex(from);
+        for (int i = 0; i < length; i++) {
+            xs[i] = current.x;
+            ys[i] = current.y;
+            current = current.next;
+        }
     }
     
     @Override
     public void setPointX(int index, double x) throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
         FunctionNode node = getNodeByIndex(index);
         
-        if ((index > 0 && x <= node.prev.point.getX()) || 
-            (index < size - 1 && x >= node.next.point.getX())) {
+        if ((index > 0 && x <= node.prev.x) || 
+            (index < size - 1 && x >= node.next.x)) {
             throw new InappropriateFunctionPointException(x);
         }
         
-        node.point.setX(x);
+        node.x = x;
+        if (index == 0 || index == size - 1) {
+            DomainStamp.advance();
+        }
     }
     
     @Override
     public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
-        getNodeByIndex(index).point.setY(y);
+        getNodeByIndex(index).y = y;
     }
     
     @Override
     public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
-        return (FunctionPoint) getNodeByIndex(index).point.clone();
+        FunctionNode node = getNodeByIndex(index);
+        return new FunctionPoint(node.x, node.y);
     }
     
     @Override
@@ -289,33 +378,87 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         FunctionNode node = getNodeByIndex(index);
         double x = point.getX();
         
-        if ((index > 0 && x <= node.prev.point.getX()) || 
-            (index < size - 1 && x >= node.next.point.getX())) {
+        if ((index > 0 && x <= node.prev.x) || 
+            (index < size - 1 && x >= node.next.x)) {
             throw new InappropriateFunctionPointException(x);
         }
         
-        node.point = (FunctionPoint) point.clone();
+        node.x = x;
+        node.y = point.getY();
+        if (index == 0 || index == size - 1) {
+            DomainStamp.advance();
+        }
     }
     
+    // Место вставки и проверка совпадения с соседями — за один проход списка
     @Override
     public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        double x = point.getX();
         FunctionNode current = head.next;
-        while (current != head) {
-            if (FunctionPoint.equals(current.point.getX(), point.getX())) {
-                throw new InappropriateFunctionPointException(point.getX());
-            }
+        int index = 0;
+        while (current != head && current.x < x) {
             current = current.next;
+            index++;
+        }
+        if ((current.prev != head && FunctionPoint.equals(current.prev.x, x))
+            || (current != head && FunctionPoint.equals(current.x, x))) {
+            throw new InappropriateFunctionPointException(x);
+        }
+        
+        FunctionNode newNode = newNode();
+        newNode.x = x;
+        newNode.y = point.getY();
+        newNode.prev = current.prev;
+        newNode.next = current;
+        current.prev.next = newNode;
+        current.prev = newNode;
+        size++;
+        
+        lastAccessedNode = newNode;
+        lastAccessedIndex = index;
+        if (index == 0 || index == size - 1) {
+            DomainStamp.advance();
+        }
+    }
+    
+    // Проверка и вставка — по одному проходу списка вместе с упорядоченным набором
+    @Override
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        PointBatch batch = PointBatch.of(xs, ys);
+        
+        FunctionNode current = head.next;
+        for (double x : batch.xs) {
+            while (current != head && current.x < x) {
+                current = current.next;
+            }
+            if ((current.prev != head && FunctionPoint.equals(current.prev.x, x))
+                || (current != head && FunctionPoint.equals(current.x, x))) {
+                throw new InappropriateFunctionPointException(x);
+            }
         }
+        boolean moved = batch.movesBorders(size, getLeftDomainBorder(), getRightDomainBorder());
         
         current = head.next;
-        int index = 0;
-        while (current != head && current.point.getX() < point.getX()) {
-            current = current.next;
-            index++;
+        for (int i = 0; i < batch.size(); i++) {
+            double x = batch.xs[i];
+            while (current != head && current.x < x) {
+                current = current.next;
+            }
+            FunctionNode newNode = newNode();
+            newNode.x = x;
+            newNode.y = batch.ys[i];
+            newNode.prev = current.prev;
+            newNode.next = current;
+            current.prev.next = newNode;
+            current.prev = newNode;
+            size++;
         }
         
-        FunctionNode newNode = addNodeByIndex(index);
-        newNode.point = (FunctionPoint) point.clone();
+        lastAccessedNode = (size > 0) ? head.next : head;
+        lastAccessedIndex = (size > 0) ? 0 : -1;
+        if (moved) {
+            DomainStamp.advance();
+        }
     }
     
     @Override
@@ -324,7 +467,10 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
             throw new IllegalStateException("Cannot delete point: minimum 3 points required");
         }
         
-        deleteNodeByIndex(index);
+        releaseNode(deleteNodeByIndex(index));
+        if (index == 0 || index == size) {
+            DomainStamp.advance();
+        }
     }
     
     @Override
@@ -335,7 +481,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         boolean first = true;
         while (current != head) {
             if (!first) sb.append(", ");
-            sb.append(current.point);
+            sb.append(new FunctionPoint(current.x, current.y));
             current = current.next;
             first = false;
         }
@@ -349,8 +495,8 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         out.writeInt(size);
         FunctionNode current = head.next;
         while (current != head) {
-            out.writeDouble(current.point.getX());
-            out.writeDouble(current.point.getY());
+            out.writeDouble(current.x);
+            out.writeDouble(current.y);
             current = current.next;
         }
     }
@@ -363,9 +509,11 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
             double x = in.readDouble();
             double y = in.readDouble();
             FunctionNode newNode = addNodeToTail();
-            newNode.point = new FunctionPoint(x, y);
+            newNode.x = x;
+            newNode.y = y;
         }
         lastAccessedNode = (size > 0) ? head.next : head;
         lastAccessedIndex = 0;
+        DomainStamp.advance();
     }
 }
\ No newline at end of file
@@ -0,0 +1,262 @@
+package functions;
+
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+// Табулированная функция только для чтения, отображённая в память прямо из файла
+// формата outputTabulatedFunction: int count, затем count пар (double x, double y), big-endian.
+// Точки читаются из страниц файла по мере обращения; файл больше 2 ГБ отображается
+// несколькими участками по 2^CHUNK_SHIFT записей.
+// Порядок абсцисс при открытии не проверяется, чтобы не читать файл целиком.
+public final class MappedTabulatedFunction implements TabulatedFunction, DomainStamp.Fixed {
+    private static final int HEADER_BYTES = 4;
+    private static final int RECORD_BYTES = 16;
+    private static final int CHUNK_SHIFT = 26;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final transient ByteBuffer[] chunks;
+    private final int pointCount;
+    private final double leftX;
+    private final double rightX;
+    
+    private MappedTabulatedFunction(ByteBuffer[] chunks, int pointCount) {
+        this.chunks = chunks;
+        this.pointCount = pointCount;
+        this.leftX = x(0);
+        this.rightX = x(pointCount - 1);
+    }
+    
+    static MappedTabulatedFunction map(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_BYTES) {
+            throw new IOException("File is too short for a tabulated function");
+        }
+        
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        int pointCount = header.getInt(0);
+        if (pointCount < 2) {
+            throw new IOException("Invalid point count: " + pointCount);
+        }
+        if (size < HEADER_BYTES + (long) pointCount * RECORD_BYTES) {
+            throw new IOException("File is truncated: " + pointCount + " points expected");
+        }
+        
+        int chunkCount = ((pointCount - 1) >>> CHUNK_SHIFT) + 1;
+        ByteBuffer[] chunks = new ByteBuffer[chunkCount];
+        for (int c = 0; c < chunkCount; c++) {
+            long first = (long) c << CHUNK_SHIFT;
+            long records = Math.min(1L << CHUNK_SHIFT, pointCount - first);
+            chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY,
+                                    HEADER_BYTES + first * RECORD_BYTES, records * RECORD_BYTES);
+        }
+        return new MappedTabulatedFunction(chunks, pointCount);
+    }
+    
+    private double x(int index) {
+        return chunks[index >>> CHUNK_SHIFT].getDouble((index & CHUNK_MASK) * RECORD_BYTES);
+    }
+    
+    private double y(int index) {
+        return chunks[index >>> CHUNK_SHIFT].getDouble((index & CHUNK_MASK) * RECORD_BYTES + 8);
+    }
+    
+    private void checkIndex(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (index < 0 || index >= pointCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+    }
+    
+    // Индекс первой точки с абсциссой больше x (двоичный поиск)
+    private int upperBound(double x) {
+        int low = 0;
+        int high = pointCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (x(mid) > x) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+    
+    // Номер левого конца отрезка, содержащего x
+    private int segment(double x) {
+        return Math.min(Math.max(upperBound(x) - 1, 0), pointCount - 2);
+    }
+    
+    // То же, но поиск начинается с отрезка i: несколько шагов вперёд, иначе двоичный поиск
+    private int segmentFrom(int i, double x) {
+        if (x(i) > x) {
+            return segment(x);
+        }
+        
+        for (int steps = 0; i < pointCount - 2 && x(i + 1) <= x; steps++) {
+            if (steps == 8) {
+                return segment(x);
+            }
+            i++;
+        }
+        return i;
+    }
+    
+    private double interpolate(int i, double x) {
+        double x1 = x(i);
+        double y1 = y(i);
+        double x2 = x(i + 1);
+        double y2 = y(i + 1);
+        
+        if (FunctionPoint.equals(x, x1)) {
+            return y1;
+        }
+        if (FunctionPoint.equals(x, x2)) {
+            return y2;
+        }
+        
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+    
+    @Override
+    public double getLeftDomainBorder() {
+        return leftX;
+    }
+    
+    @Override
+    public double getRightDomainBorder() {
+        return rightX;
+    }
+    
+    @Override
+    public double getFunctionValue(double x) {
+        if (x < leftX || x > rightX) {
+            return Double.NaN;
+        }
+        
+        return interpolate(segment(x), x);
+    }
+    
+    // Для возрастающих аргументов поиск отрезков идёт одним проходом по таблице
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        int i = 0;
+        for (int k = 0; k < xs.length; k++) {
+            double x = xs[k];
+            if (x < leftX || x > rightX) {
+                out[k] = Double.NaN;
+                continue;
+            }
+            
+            i = segmentFrom(i, x);
+            out[k] = interpolate(i, x);
+        }
+    }
+    
+    @Override
+    public int getPointCount() {
+        return pointCount;
+    }
+    
+    @Override
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return x(index);
+    }
+    
+    @Override
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return y(index);
+    }
+    
+    // Абсциссы и ординаты в файле чередуются, поэтому xView и yView возвращают копии
+    @Override
+    public void copyXs(double[] dst, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        FunctionPointIndexOutOfBoundsException.checkRange(from, length, pointCount);
+        for (int i = 0; i < length; i++) {
+            dst[i] = x(from + i);
+        }
+    }
+    
+    @Override
+    public void copyYs(double[] dst, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        FunctionPointIndexOutOfBoundsException.checkRange(from, length, pointCount);
+        for (int i = 0; i < length; i++) {
+            dst[i] = y(from + i);
+        }
+    }
+    
+    @Override
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return new FunctionPoint(x(index), y(index));
+    }
+    
+    @Override
+    public void setPointX(int index, double x) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+    
+    @Override
+    public void setPointY(int index, double y) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+    
+    @Override
+    public void setPoint(int index, FunctionPoint point) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+    
+    @Override
+    public void addPoint(FunctionPoint point) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+    
+    @Override
+    public void addPoints(FunctionPoint[] points) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+    
+    @Override
+    public void addPoints(double[] xs, double[] ys) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+    
+    @Override
+    public void deletePoint(int index) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        for (int i = 0; i < pointCount; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(new FunctionPoint(x(i), y(i)));
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+    
+    // Отображение не сериализуется: в поток записывается копия в ArrayTabulatedFunction
+    private Object writeReplace() throws ObjectStreamException {
+        double[] xValues = new double[pointCount];
+        double[] yValues = new double[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            xValues[i] = x(i);
+            yValues[i] = y(i);
+        }
+        ArrayTabulatedFunction.checkValues(xValues, yValues);
+        return ArrayTabulatedFunction.wrap(xValues, yValues, pointCount);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,521 @@
+package functions;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+// Табулированная функция, точки которой хранятся вне кучи в прямых буферах.
+// Абсциссы и ординаты лежат в отдельных массивах из участков по 2^CHUNK_SHIFT элементов (1 ГБ),
+// поэтому число точек ограничено только типом int; последний участок растёт удвоением.
+// Память освобождается методом close(), после которого функцией пользоваться нельзя.
+// Как и остальные реализации, класс не потокобезопасен; close() нельзя вызывать одновременно с чтением.
+public class OffHeapTabulatedFunction implements TabulatedFunction, DomainStamp.Tracked, Externalizable, AutoCloseable {
+    private static final int CHUNK_SHIFT = 27;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int MIN_CHUNK_SIZE = 16;
+    
+    private static final long serialVersionUID = 1L;
+    
+    // Массив double вне кучи; адресация по байтовому смещению в участке
+    private static final class Storage {
+        private ByteBuffer[] chunks = new ByteBuffer[0];
+        private long capacity;
+        
+        double get(int index) {
+            return chunks[index >>> CHUNK_SHIFT].getDouble((index & CHUNK_MASK) << 3);
+        }
+        
+        void set(int index, double value) {
+            chunks[index >>> CHUNK_SHIFT].putDouble((index & CHUNK_MASK) << 3, value);
+        }
+        
+        void ensureCapacity(long size) {
+            while (capacity < size) {
+                int last = chunks.length - 1;
+                if (last >= 0 && length(chunks[last]) < CHUNK_SIZE) {
+                    // Неполный последний участок перевыделяется вдвое большим
+                    ByteBuffer old = chunks[last];
+                    long needed = size - ((long) last << CHUNK_SHIFT);
+                    int length = (int) Math.min(CHUNK_SIZE, Math.max(2L * length(old), needed));
+                    ByteBuffer chunk = allocate(length);
+                    chunk.put(0, old, 0, old.capacity());
+                    chunks[last] = chunk;
+                    capacity += length - length(old);
+                    release(old);
+                } else {
+                    long needed = size - capacity;
+                    int length = (int) Math.min(CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, needed));
+                    chunks = Arrays.copyOf(chunks, chunks.length + 1);
+                    chunks[last + 1] = allocate(length);
+                    capacity += length;
+                }
+            }
+        }
+        
+        // Копирование length элементов с позиции from в dst[0..length-1] по участкам
+        void copyTo(int from, double[] dst, int length) {
+            int done = 0;
+            while (done < length) {
+                int index = from + done;
+                int offset = index & CHUNK_MASK;
+                int n = Math.min(length - done, CHUNK_SIZE - offset);
+                chunks[index >>> CHUNK_SHIFT].asDoubleBuffer().get(offset, dst, done, n);
+                done += n;
+            }
+        }
+        
+        // Перенос length элементов с позиции from на позицию to; области могут перекрываться
+        void move(int from, int to, int length) {
+            if (to > from) {
+                for (int i = length - 1; i >= 0; i--) {
+                    set(to + i, get(from + i));
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    set(to + i, get(from + i));
+                }
+            }
+        }
+        
+        void free() {
+            for (ByteBuffer chunk : chunks) {
+                release(chunk);
+            }
+            chunks = new ByteBuffer[0];
+            capacity = 0;
+        }
+        
+        private static int length(ByteBuffer chunk) {
+            return chunk.capacity() >>> 3;
+        }
+    }
+    
+    private static ByteBuffer allocate(int length) {
+        return ByteBuffer.allocateDirect(length * Double.BYTES).order(ByteOrder.nativeOrder());
+    }
+    
+    // Немедленное освобождение прямого буфера (sun.misc.Unsafe.invokeCleaner);
+    // если оно недоступно, память освобождается сборщиком мусора после потери ссылок
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+    
+    static {
+        Object unsafe;
+        Method invokeCleaner;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+    
+    private static void release(ByteBuffer chunk) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, chunk);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Память будет освобождена сборщиком мусора
+        }
+    }
+    
+    private Storage xValues;
+    private Storage yValues;
+    private int pointCount;
+    private boolean closed;
+    
+    // Конструктор для Externalizable
+    public OffHeapTabulatedFunction() {
+        xValues = new Storage();
+        yValues = new Storage();
+        pointCount = 0;
+    }
+    
+    public OffHeapTabulatedFunction(FunctionPoint[] points) throws IllegalArgumentException {
+        this();
+        if (points.length < 2) {
+            throw new IllegalArgumentException("At least 2 points required");
+        }
+        
+        for (int i = 1; i < points.length; i++) {
+            if (points[i].getX() <= points[i-1].getX()) {
+                throw new IllegalArgumentException("Points must be sorted by X in ascending order");
+            }
+        }
+        
+        reserve(points.length);
+        for (int i = 0; i < points.length; i++) {
+            xValues.set(i, points[i].getX());
+            yValues.set(i, points[i].getY());
+        }
+        pointCount = points.length;
+    }
+    
+    public OffHeapTabulatedFunction(double leftX, double rightX, int pointCount) throws IllegalArgumentException {
+        this();
+        if (leftX >= rightX || pointCount < 2) {
+            throw new IllegalArgumentException("Invalid parameters: leftX must be less than rightX and pointCount >= 2");
+        }
+        
+        reserve(pointCount);
+        double step = (rightX - leftX) / (pointCount - 1);
+        for (int i = 0; i < pointCount; i++) {
+            xValues.set(i, leftX + i * step);
+            yValues.set(i, 0);
+        }
+        this.pointCount = pointCount;
+    }
+    
+    public OffHeapTabulatedFunction(double[] xValues, double[] yValues) throws IllegalArgumentException {
+        this();
+        if (xValues.length < 2 || xValues.length != yValues.length) {
+            throw new IllegalArgumentException("Arrays must have same length and at least 2 elements");
+        }
+        
+        for (int i = 1; i < xValues.length; i++) {
+            if (xValues[i] <= xValues[i - 1]) {
+                throw new IllegalArgumentException("X values must be strictly increasing");
+            }
+        }
+        
+        reserve(xValues.length);
+        for (int i = 0; i < xValues.length; i++) {
+            this.xValues.set(i, xValues[i]);
+            this.yValues.set(i, yValues[i]);
+        }
+        this.pointCount = xValues.length;
+    }
+    
+    private void reserve(long size) {
+        xValues.ensureCapacity(size);
+        yValues.ensureCapacity(size);
+    }
+    
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Tabulated function is closed");
+        }
+    }
+    
+    private void checkIndex(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkOpen();
+        if (index < 0 || index >= pointCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+    }
+    
+    // Освобождает память точек; повторный вызов ничего не делает
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pointCount = 0;
+        xValues.free();
+        yValues.free();
+    }
+    
+    public boolean isClosed() {
+        return closed;
+    }
+    
+    // Индекс первой точки с абсциссой больше x (двоичный поиск)
+    private int upperBound(double x) {
+        int low = 0;
+        int high = pointCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xValues.get(mid) > x) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+    
+    private int findPlaceForX(double x) {
+        int position = upperBound(x);
+        
+        if ((position > 0 && FunctionPoint.equals(xValues.get(position - 1), x)) ||
+            (position < pointCount && FunctionPoint.equals(xValues.get(position), x))) {
+            return -1;
+        }
+        return position;
+    }
+    
+    @Override
+    public double getLeftDomainBorder() {
+        checkOpen();
+        return xValues.get(0);
+    }
+    
+    @Override
+    public double getRightDomainBorder() {
+        checkOpen();
+        return xValues.get(pointCount - 1);
+    }
+    
+    @Override
+    public double getFunctionValue(double x) {
+        checkOpen();
+        if (x < xValues.get(0) || x > xValues.get(pointCount - 1)) {
+            return Double.NaN;
+        }
+        
+        return interpolate(segment(x), x);
+    }
+    
+    // Для возрастающих аргументов поиск отрезков идёт одним проходом по таблице
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        checkOpen();
+        double leftX = xValues.get(0);
+        double rightX = xValues.get(pointCount - 1);
+        int i = 0;
+        for (int k = 0; k < xs.length; k++) {
+            double x = xs[k];
+            if (x < leftX || x > rightX) {
+                out[k] = Double.NaN;
+                continue;
+            }
+            
+            i = segmentFrom(i, x);
+            out[k] = interpolate(i, x);
+        }
+    }
+    
+    // Номер левого конца отрезка, содержащего x
+    private int segment(double x) {
+        return Math.min(Math.max(upperBound(x) - 1, 0), pointCount - 2);
+    }
+    
+    // То же, но поиск начинается с отрезка i: несколько шагов вперёд, иначе двоичный поиск
+    private int segmentFrom(int i, double x) {
+        if (xValues.get(i) > x) {
+            return segment(x);
+        }
+        
+        for (int steps = 0; i < pointCount - 2 && xValues.get(i + 1) <= x; steps++) {
+            if (steps == 8) {
+                return segment(x);
+            }
+            i++;
+        }
+        return i;
+    }
+    
+    private double interpolate(int i, double x) {
+        double x1 = xValues.get(i);
+        double y1 = yValues.get(i);
+        double x2 = xValues.get(i + 1);
+        double y2 = yValues.get(i + 1);
+        
+        if (FunctionPoint.equals(x, x1)) {
+            return y1;
+        }
+        if (FunctionPoint.equals(x, x2)) {
+            return y2;
+        }
+        
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+    
+    @Override
+    public int getPointCount() {
+        return pointCount;
+    }
+    
+    @Override
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return xValues.get(index);
+    }
+    
+    @Override
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return yValues.get(index);
+    }
+    
+    // xView и yView возвращают копии: рост хранилища и close() освобождают память участков
+    @Override
+    public void copyXs(double[] dst, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        checkOpen();
+        FunctionPointIndexOutOfBoundsException.checkRange(from, length, pointCount);
+        xValues.copyTo(from, dst, length);
+    }
+    
+    @Override
+    public void copyYs(double[] dst, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        checkOpen();
+        FunctionPointIndexOutOfBoundsException.checkRange(from, length, pointCount);
+        yValues.copyTo(from, dst, length);
+    }
+    
+    @Override
+    public void setPointX(int index, double x) throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkIndex(index);
+        
+        if ((index > 0 && x <= xValues.get(index - 1)) ||
+            (index < pointCount - 1 && x >= xValues.get(index + 1))) {
+            throw new InappropriateFunctionPointException(x);
+        }
+        
+        xValues.set(index, x);
+        if (index == 0 || index == pointCount - 1) {
+            DomainStamp.advance();
+        }
+    }
+    
+    @Override
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        yValues.set(index, y);
+    }
+    
+    @Override
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return new FunctionPoint(xValues.get(index), yValues.get(index));
+    }
+    
+    @Override
+    public void setPoint(int index, FunctionPoint point) throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        setPointX(index, point.getX());
+        yValues.set(index, point.getY());
+    }
+    
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        checkOpen();
+        int position = findPlaceForX(point.getX());
+        
+        if (position == -1) {
+            throw new InappropriateFunctionPointException(point.getX());
+        }
+        if (pointCount == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Cannot add point: too many points");
+        }
+        
+        reserve(pointCount + 1L);
+        xValues.move(position, position + 1, pointCount - position);
+        yValues.move(position, position + 1, pointCount - position);
+        
+        xValues.set(position, point.getX());
+        yValues.set(position, point.getY());
+        pointCount++;
+        if (position == 0 || position == pointCount - 1) {
+            DomainStamp.advance();
+        }
+    }
+    
+    // Слияние с конца на месте: каждая точка сдвигается не больше одного раза
+    @Override
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        checkOpen();
+        PointBatch batch = PointBatch.of(xs, ys);
+        int m = batch.size();
+        
+        int p = 0;
+        for (double x : batch.xs) {
+            while (p < pointCount && xValues.get(p) < x) {
+                p++;
+            }
+            if ((p > 0 && FunctionPoint.equals(xValues.get(p - 1), x))
+                || (p < pointCount && FunctionPoint.equals(xValues.get(p), x))) {
+                throw new InappropriateFunctionPointException(x);
+            }
+        }
+        if (pointCount + (long) m > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Cannot add points: too many points");
+        }
+        boolean moved = batch.movesBorders(pointCount,
+                                           (pointCount > 0) ? xValues.get(0) : Double.NaN,
+                                           (pointCount > 0) ? xValues.get(pointCount - 1) : Double.NaN);
+        
+        reserve(pointCount + (long) m);
+        int i = pointCount - 1;
+        int j = m - 1;
+        for (int k = pointCount + m - 1; j >= 0; k--) {
+            if (i >= 0 && xValues.get(i) > batch.xs[j]) {
+                xValues.set(k, xValues.get(i));
+                yValues.set(k, yValues.get(i--));
+            } else {
+                xValues.set(k, batch.xs[j]);
+                yValues.set(k, batch.ys[j--]);
+            }
+        }
+        pointCount += m;
+        if (moved) {
+            DomainStamp.advance();
+        }
+    }
+    
+    @Override
+    public void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        checkIndex(index);
+        
+        if (pointCount < 3) {
+            throw new IllegalStateException("Cannot delete point: minimum 3 points required");
+        }
+        
+        xValues.move(index + 1, index, pointCount - index - 1);
+        yValues.move(index + 1, index, pointCount - index - 1);
+        
+        pointCount--;
+        if (index == 0 || index == pointCount) {
+            DomainStamp.advance();
+        }
+    }
+    
+    @Override
+    public String toString() {
+        checkOpen();
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        for (int i = 0; i < pointCount; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(new FunctionPoint(xValues.get(i), yValues.get(i)));
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+    
+    // Формат совпадает с ArrayTabulatedFunction
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        checkOpen();
+        out.writeInt(pointCount);
+        for (int i = 0; i < pointCount; i++) {
+            out.writeDouble(xValues.get(i));
+            out.writeDouble(yValues.get(i));
+        }
+    }
+    
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        checkOpen();
+        int count = in.readInt();
+        reserve(count);
+        for (int i = 0; i < count; i++) {
+            xValues.set(i, in.readDouble());
+            yValues.set(i, in.readDouble());
+        }
+        pointCount = count;
+        DomainStamp.advance();
+    }
+}
\ No newline at end of file
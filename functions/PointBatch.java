@@ -0,0 +1,156 @@
+package functions;
+
+// Набор добавляемых точек для TabulatedFunction.addPoints: копия, упорядоченная по x
+// (сортировка слиянием, если набор ещё не упорядочен), без совпадающих абсцисс.
+// Проверка по точкам функции выполняется до изменения, поэтому набор добавляется целиком или никак.
+final class PointBatch {
+    final double[] xs;
+    final double[] ys;
+    
+    private PointBatch(double[] xs, double[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+    }
+    
+    static PointBatch of(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        double[] xs = new double[points.length];
+        double[] ys = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            xs[i] = points[i].getX();
+            ys[i] = points[i].getY();
+        }
+        return sorted(xs, ys);
+    }
+    
+    static PointBatch of(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Arrays must have same length");
+        }
+        return sorted(xs.clone(), ys.clone());
+    }
+    
+    private static PointBatch sorted(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        for (double x : xs) {
+            if (Double.isNaN(x)) {
+                throw new InappropriateFunctionPointException(x);
+            }
+        }
+        
+        boolean ordered = true;
+        for (int i = 1; i < xs.length && ordered; i++) {
+            ordered = xs[i - 1] <= xs[i];
+        }
+        if (!ordered) {
+            sort(xs, ys);
+        }
+        
+        for (int i = 1; i < xs.length; i++) {
+            if (FunctionPoint.equals(xs[i - 1], xs[i])) {
+                throw new InappropriateFunctionPointException(xs[i]);
+            }
+        }
+        return new PointBatch(xs, ys);
+    }
+    
+    // Восходящая сортировка слиянием пар (x, y) по x
+    private static void sort(double[] xs, double[] ys) {
+        int n = xs.length;
+        double[] srcX = xs;
+        double[] srcY = ys;
+        double[] dstX = new double[n];
+        double[] dstY = new double[n];
+        
+        for (int width = 1; width < n; width *= 2) {
+            for (int from = 0; from < n; from += 2 * width) {
+                int middle = Math.min(from + width, n);
+                int to = Math.min(from + 2 * width, n);
+                int i = from;
+                int j = middle;
+                for (int k = from; k < to; k++) {
+                    if (i < middle && (j >= to || srcX[i] <= srcX[j])) {
+                        dstX[k] = srcX[i];
+                        dstY[k] = srcY[i++];
+                    } else {
+                        dstX[k] = srcX[j];
+                        dstY[k] = srcY[j++];
+                    }
+                }
+            }
+            double[] t = srcX;
+            srcX = dstX;
+            dstX = t;
+            t = srcY;
+            srcY = dstY;
+            dstY = t;
+        }
+        
+        if (srcX != xs) {
+            System.arraycopy(srcX, 0, xs, 0, n);
+            System.arraycopy(srcY, 0, ys, 0, n);
+        }
+    }
+    
+    int size() {
+        return xs.length;
+    }
+    
+    // Сдвигает ли набор крайние точки функции с абсциссами от leftX до rightX
+    boolean movesBorders(int pointCount, double leftX, double rightX) {
+        return xs.length > 0 && (pointCount == 0 || xs[0] < leftX || xs[xs.length - 1] > rightX);
+    }
+    
+    // Проверка по упорядоченным абсциссам values[0..count) одним проходом
+    void checkAgainst(double[] values, int count) throws InappropriateFunctionPointException {
+        int p = 0;
+        for (double x : xs) {
+            while (p < count && values[p] < x) {
+                p++;
+            }
+            if ((p > 0 && FunctionPoint.equals(values[p - 1], x))
+                || (p < count && FunctionPoint.equals(values[p], x))) {
+                throw new InappropriateFunctionPointException(x);
+            }
+        }
+    }
+    
+    // То же для произвольной функции: двоичный поиск по getPointX
+    void checkAgainst(TabulatedFunction function) throws InappropriateFunctionPointException {
+        int count = function.getPointCount();
+        for (double x : xs) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (function.getPointX(mid) < x) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if ((low > 0 && FunctionPoint.equals(function.getPointX(low - 1), x))
+                || (low < count && FunctionPoint.equals(function.getPointX(low), x))) {
+                throw new InappropriateFunctionPointException(x);
+            }
+        }
+    }
+    
+    // Слияние count точек (xValues, yValues) с набором в (xTarget, yTarget) с конца;
+    // целевые массивы могут совпадать с исходными, если их длины хватает на count + size()
+    void mergeInto(double[] xValues, double[] yValues, int count, double[] xTarget, double[] yTarget) {
+        int i = count - 1;
+        int j = xs.length - 1;
+        for (int k = count + xs.length - 1; j >= 0; k--) {
+            if (i >= 0 && xValues[i] > xs[j]) {
+                xTarget[k] = xValues[i];
+                yTarget[k] = yValues[i--];
+            } else {
+                xTarget[k] = xs[j];
+                yTarget[k] = ys[j--];
+            }
+        }
+        if (xTarget != xValues) {
+            System.arraycopy(xValues, 0, xTarget, 0, i + 1);
+            System.arraycopy(yValues, 0, yTarget, 0, i + 1);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,417 @@
+package functions;
+
+import java.io.*;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Табулированная функция для одновременной записи и чтения из многих потоков:
+// точки хранятся в неблокирующем списке с пропусками ConcurrentSkipListMap по x.
+// getFunctionValue интерполирует между floorEntry и ceilingEntry без блокировок;
+// addPoint и изменение ординат из разных потоков не мешают друг другу.
+// Проверка близких абсцисс без общей блокировки: точка сначала вставляется,
+// затем проверяются её соседи, и при совпадении вставка отменяется. Из двух одновременных
+// вставок близких точек хотя бы одна получит InappropriateFunctionPointException.
+// Доступ по индексу перебирает точки от начала и стоит O(index); при одновременных
+// изменениях индекс относится к набору точек на момент перебора.
+public class SkipListTabulatedFunction implements TabulatedFunction, DomainStamp.Tracked, Externalizable {
+    private final ConcurrentSkipListMap<Double, Double> points = new ConcurrentSkipListMap<>();
+    // Число точек; удаление сначала уменьшает его, поэтому правило трёх точек не нарушается
+    private final AtomicInteger pointCount = new AtomicInteger();
+    // Номер версии набора абсцисс: увеличивается при каждой вставке и удалении
+    private final AtomicLong version = new AtomicLong();
+    private transient volatile Cursor cursor;
+    
+    private static final class Cursor {
+        final int index;
+        final Double key;
+        final long version;
+        
+        Cursor(int index, Double key, long version) {
+            this.index = index;
+            this.key = key;
+            this.version = version;
+        }
+    }
+    
+    private static final long serialVersionUID = 1L;
+    
+    // Конструктор для Externalizable
+    public SkipListTabulatedFunction() {
+    }
+    
+    public SkipListTabulatedFunction(FunctionPoint[] points) throws IllegalArgumentException {
+        if (points.length < 2) {
+            throw new IllegalArgumentException("At least 2 points required");
+        }
+        
+        for (int i = 1; i < points.length; i++) {
+            if (points[i].getX() <= points[i-1].getX()) {
+                throw new IllegalArgumentException("Points must be sorted by X in ascending order");
+            }
+        }
+        
+        for (FunctionPoint point : points) {
+            this.points.put(key(point.getX()), point.getY());
+        }
+        pointCount.set(points.length);
+    }
+    
+    public SkipListTabulatedFunction(double leftX, double rightX, int pointCount) throws IllegalArgumentException {
+        if (leftX >= rightX || pointCount < 2) {
+            throw new IllegalArgumentException("Invalid parameters: leftX must be less than rightX and pointCount >= 2");
+        }
+        
+        double step = (rightX - leftX) / (pointCount - 1);
+        for (int i = 0; i < pointCount; i++) {
+            points.put(key(leftX + i * step), 0.0);
+        }
+        this.pointCount.set(pointCount);
+    }
+    
+    public SkipListTabulatedFunction(double[] xValues, double[] yValues) throws IllegalArgumentException {
+        if (xValues.length < 2 || xValues.length != yValues.length) {
+            throw new IllegalArgumentException("Arrays must have same length and at least 2 elements");
+        }
+        
+        for (int i = 1; i < xValues.length; i++) {
+            if (xValues[i] <= xValues[i - 1]) {
+                throw new IllegalArgumentException("X values must be strictly increasing");
+            }
+        }
+        
+        for (int i = 0; i < xValues.length; i++) {
+            points.put(key(xValues[i]), yValues[i]);
+        }
+        pointCount.set(xValues.length);
+    }
+    
+    // Точка с номером index в текущем порядке. Последняя найденная точка запоминается вместе
+    // с номером версии набора, поэтому последовательный перебор по индексам идёт за O(1) на точку
+    private Map.Entry<Double, Double> entryAt(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (index < 0) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+        
+        long currentVersion = version.get();
+        Cursor c = cursor;
+        Map.Entry<Double, Double> entry = null;
+        if (c != null && c.version == currentVersion && index >= c.index) {
+            // Запись берётся заново: ордината могла измениться без смены версии
+            entry = points.ceilingEntry(c.key);
+            for (int i = c.index; i < index && entry != null; i++) {
+                entry = points.higherEntry(entry.getKey());
+            }
+        } else {
+            Iterator<Map.Entry<Double, Double>> iterator = points.entrySet().iterator();
+            for (int i = 0; i <= index && iterator.hasNext(); i++) {
+                entry = iterator.next();
+                if (i == index) {
+                    break;
+                }
+                entry = null;
+            }
+        }
+        
+        if (entry == null) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+        cursor = new Cursor(index, entry.getKey(), currentVersion);
+        return entry;
+    }
+    
+    private boolean isBorder(double x) {
+        Map.Entry<Double, Double> first = points.firstEntry();
+        Map.Entry<Double, Double> last = points.lastEntry();
+        return first == null || x <= first.getKey() || x >= last.getKey();
+    }
+    
+    // Вставка точки x, если у неё нет соседа ближе FunctionPoint.EPS; иначе false.
+    // Вставленная точка ещё не учтена в pointCount: это делает вызывающий после проверки всех точек
+    private boolean insert(double x, double y) {
+        Double key = x;
+        if (points.putIfAbsent(key, y) != null) {
+            return false;
+        }
+        version.incrementAndGet();
+        
+        Double lower = points.lowerKey(key);
+        Double higher = points.higherKey(key);
+        if ((lower != null && FunctionPoint.equals(lower, x)) || (higher != null && FunctionPoint.equals(higher, x))) {
+            discard(key);
+            return false;
+        }
+        return true;
+    }
+    
+    // Отмена вставки ещё не учтённой точки. Если её уже удалил deletePoint, он уменьшил pointCount
+    // за эту точку, и счётчик возвращается назад: число точек меняет только тот, чьё удаление удалось
+    private void discard(Double key) {
+        if (points.remove(key) == null) {
+            pointCount.incrementAndGet();
+        }
+        version.incrementAndGet();
+    }
+    
+    // Абсциссы -0.0 и 0.0 различаются в ConcurrentSkipListMap, поэтому ключом всегда служит x + 0.0
+    private static double key(double x) {
+        return x + 0.0;
+    }
+    
+    // Реализация интерфейса Function
+    @Override
+    public double getLeftDomainBorder() {
+        Map.Entry<Double, Double> first = points.firstEntry();
+        return (first != null) ? first.getKey() : Double.NaN;
+    }
+    
+    @Override
+    public double getRightDomainBorder() {
+        Map.Entry<Double, Double> last = points.lastEntry();
+        return (last != null) ? last.getKey() : Double.NaN;
+    }
+    
+    @Override
+    public double getFunctionValue(double x) {
+        Map.Entry<Double, Double> floor = points.floorEntry(key(x));
+        Map.Entry<Double, Double> ceiling = points.ceilingEntry(key(x));
+        if (floor == null || ceiling == null) {
+            return Double.NaN;
+        }
+        
+        double x1 = floor.getKey();
+        double y1 = floor.getValue();
+        double x2 = ceiling.getKey();
+        double y2 = ceiling.getValue();
+        
+        if (FunctionPoint.equals(x, x1)) {
+            return y1;
+        }
+        if (FunctionPoint.equals(x, x2)) {
+            return y2;
+        }
+        
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+    
+    @Override
+    public int getPointCount() {
+        return pointCount.get();
+    }
+    
+    @Override
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        return entryAt(index).getKey();
+    }
+    
+    @Override
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        return entryAt(index).getValue();
+    }
+    
+    // Перебор от точки from; при одновременном удалении точек диапазон может оказаться за концом
+    @Override
+    public void copyXs(double[] dst, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        FunctionPointIndexOutOfBoundsException.checkRange(from, length, pointCount.get());
+        if (length == 0) {
+            return;
+        }
+        Iterator<Double> keys = points.tailMap(entryAt(from).getKey(), true).keySet().iterator();
+        for (int i = 0; i < length; i++) {
+            if (!keys.hasNext()) {
+                throw new FunctionPointIndexOutOfBoundsException(from + i);
+            }
+            dst[i] = keys.next();
+        }
+    }
+    
+    @Override
+    public void copyYs(double[] dst, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        FunctionPointIndexOutOfBoundsException.checkRange(from, length, pointCount.get());
+        if (length == 0) {
+            return;
+        }
+        Iterator<Double> values = points.tailMap(entryAt(from).getKey(), true).values().iterator();
+        for (int i = 0; i < length; i++) {
+            if (!values.hasNext()) {
+                throw new FunctionPointIndexOutOfBoundsException(from + i);
+            }
+            dst[i] = values.next();
+        }
+    }
+    
+    // Абсциссы и ординаты берутся из одних и тех же записей, поэтому пары согласованы
+    @Override
+    public void copyPoints(double[] xs, double[] ys, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        FunctionPointIndexOutOfBoundsException.checkRange(from, length, pointCount.get());
+        if (length == 0) {
+            return;
+        }
+        Iterator<Map.Entry<Double, Double>> entries = points.tailMap(entryAt(from).getKey(), true).entrySet().iterator();
+        for (int i = 0; i < length; i++) {
+            if (!entries.hasNext()) {
+                throw new FunctionPointIndexOutOfBoundsException(from + i);
+            }
+            Map.Entry<Double, Double> entry = entries.next();
+            xs[i] = entry.getKey();
+            ys[i] = entry.getValue();
+        }
+    }
+    
+    @Override
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        Map.Entry<Double, Double> entry = entryAt(index);
+        return new FunctionPoint(entry.getKey(), entry.getValue());
+    }
+    
+    // Новая абсцисса вставляется до удаления старой, поэтому точка не пропадает для читателей
+    @Override
+    public void setPointX(int index, double x) throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        Map.Entry<Double, Double> entry = entryAt(index);
+        Double old = entry.getKey();
+        double newKey = key(x);
+        if (old == newKey) {
+            return;
+        }
+        
+        Double lower = points.lowerKey(old);
+        Double higher = points.higherKey(old);
+        if ((lower != null && newKey <= lower) || (higher != null && newKey >= higher)
+            || points.putIfAbsent(newKey, entry.getValue()) != null) {
+            throw new InappropriateFunctionPointException(x);
+        }
+        // Старую точку мог уже удалить deletePoint; тогда новая точка остаётся сверх учтённых
+        if (points.remove(old) == null) {
+            pointCount.incrementAndGet();
+        }
+        version.incrementAndGet();
+        if (lower == null || higher == null) {
+            DomainStamp.advance();
+        }
+    }
+    
+    @Override
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        if (points.replace(entryAt(index).getKey(), y) == null) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+    }
+    
+    @Override
+    public void setPoint(int index, FunctionPoint point) throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        setPointX(index, point.getX());
+        points.replace(key(point.getX()), point.getY());
+    }
+    
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        double x = point.getX();
+        if (Double.isNaN(x) || !insert(key(x), point.getY())) {
+            throw new InappropriateFunctionPointException(x);
+        }
+        
+        pointCount.incrementAndGet();
+        if (isBorder(x)) {
+            DomainStamp.advance();
+        }
+    }
+    
+    // Точки вставляются по одной; при конфликте уже вставленные точки набора удаляются.
+    // До конца вставки точки набора не учтены в pointCount (см. insert и discard)
+    @Override
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        PointBatch batch = PointBatch.of(xs, ys);
+        
+        for (int i = 0; i < batch.size(); i++) {
+            if (!insert(key(batch.xs[i]), batch.ys[i])) {
+                for (int j = 0; j < i; j++) {
+                    discard(key(batch.xs[j]));
+                }
+                throw new InappropriateFunctionPointException(batch.xs[i]);
+            }
+        }
+        
+        pointCount.addAndGet(batch.size());
+        if (batch.size() > 0) {
+            DomainStamp.advance();
+        }
+    }
+    
+    @Override
+    public void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        if (index < 0 || index >= pointCount.get()) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+        
+        // Место точки занимается до удаления: одновременные удаления не опустят число точек ниже двух
+        while (true) {
+            int count = pointCount.get();
+            if (count < 3) {
+                throw new IllegalStateException("Cannot delete point: minimum 3 points required");
+            }
+            if (pointCount.compareAndSet(count, count - 1)) {
+                break;
+            }
+        }
+        
+        // Точку могут удалить одновременно из другого потока; тогда ищется точка с тем же номером заново
+        while (true) {
+            Map.Entry<Double, Double> entry;
+            try {
+                entry = entryAt(index);
+            } catch (FunctionPointIndexOutOfBoundsException e) {
+                pointCount.incrementAndGet();
+                throw e;
+            }
+            
+            double x = entry.getKey();
+            if (points.remove(entry.getKey()) != null) {
+                version.incrementAndGet();
+                if (isBorder(x)) {
+                    DomainStamp.advance();
+                }
+                return;
+            }
+        }
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        boolean first = true;
+        for (Map.Entry<Double, Double> entry : points.entrySet()) {
+            if (!first) sb.append(", ");
+            sb.append(new FunctionPoint(entry.getKey(), entry.getValue()));
+            first = false;
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+    
+    // Формат совпадает с ArrayTabulatedFunction; запись идёт по слабо согласованному перебору
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        Map.Entry<?, ?>[] entries = points.entrySet().toArray(new Map.Entry<?, ?>[0]);
+        out.writeInt(entries.length);
+        for (Map.Entry<?, ?> entry : entries) {
+            out.writeDouble((Double) entry.getKey());
+            out.writeDouble((Double) entry.getValue());
+        }
+    }
+    
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        int count = in.readInt();
+        points.clear();
+        for (int i = 0; i < count; i++) {
+            double x = in.readDouble();
+            points.put(key(x), in.readDouble());
+        }
+        pointCount.set(count);
+        version.incrementAndGet();
+        DomainStamp.advance();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package functions;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+// Двоичный формат табулированной функции (см. TabulatedFunctions.outputTabulatedFunction):
+// int count, затем count пар (double x, double y), big-endian.
+// Точки передаются блоками по BLOCK_POINTS через ByteBuffer и его представление DoubleBuffer.
+final class TabulatedBinaryCodec {
+    static final int HEADER_BYTES = 4;
+    static final int POINT_BYTES = 16;
+    static final int BLOCK_POINTS = 8192;
+    
+    private TabulatedBinaryCodec() {
+        throw new AssertionError("Cannot instantiate utility class");
+    }
+    
+    static void write(TabulatedFunction function, WritableByteChannel out) throws IOException {
+        int pointCount = function.getPointCount();
+        ByteBuffer buffer = ByteBuffer.allocate(BLOCK_POINTS * POINT_BYTES);
+        DoubleBuffer doubles = buffer.asDoubleBuffer();
+        double[] xs = new double[BLOCK_POINTS];
+        double[] ys = new double[BLOCK_POINTS];
+        double[] block = new double[2 * BLOCK_POINTS];
+        
+        buffer.putInt(0, pointCount).limit(HEADER_BYTES);
+        writeFully(buffer, out);
+        
+        for (int from = 0; from < pointCount; from += BLOCK_POINTS) {
+            int n = Math.min(BLOCK_POINTS, pointCount - from);
+            function.copyPoints(xs, ys, from, n);
+            for (int j = 0; j < n; j++) {
+                block[2 * j] = xs[j];
+                block[2 * j + 1] = ys[j];
+            }
+            doubles.put(0, block, 0, 2 * n);
+            buffer.clear().limit(n * POINT_BYTES);
+            writeFully(buffer, out);
+        }
+    }
+    
+    static TabulatedFunction read(TabulatedPointReader in) throws IOException {
+        int pointCount = in.getPointCount();
+        double[] xValues = new double[pointCount];
+        double[] yValues = new double[pointCount];
+        
+        int offset = 0;
+        while (offset < pointCount) {
+            offset += in.read(xValues, yValues, offset, pointCount - offset);
+        }
+        
+        ArrayTabulatedFunction.checkValues(xValues, yValues);
+        return ArrayTabulatedFunction.wrap(xValues, yValues, pointCount);
+    }
+    
+    // Запись буфера от начала до limit
+    static void writeFully(ByteBuffer buffer, WritableByteChannel out) throws IOException {
+        buffer.position(0);
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+    
+    // Чтение в буфер ровно limit байт с начала
+    static void readFully(ByteBuffer buffer, ReadableByteChannel in) throws IOException {
+        buffer.position(0);
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of tabulated function data");
+            }
+        }
+    }
+}
\ No newline at end of file
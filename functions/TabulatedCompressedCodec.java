@@ -0,0 +1,373 @@
+package functions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+// Сжатый двоичный формат табулированной функции (см. TabulatedFunctions.outputCompressedTabulatedFunction).
+// Заголовок: int MAGIC, byte VERSION, byte флагов, int count; для равномерной сетки — double leftX, double step.
+// Затем блоки по BLOCK_POINTS точек: int длина блока в байтах и битовый поток, дополненный до байта.
+// Неравномерные абсциссы кодируются разностями второго порядка их упорядоченных битов,
+// ординаты — XOR с предыдущим значением (Gorilla). Состояние кодеков переходит из блока в блок,
+// а длина блока позволяет читать ровно байты функции, не заглядывая дальше.
+final class TabulatedCompressedCodec {
+    private static final int MAGIC = 0x5446435A;
+    private static final int VERSION = 1;
+    private static final int UNIFORM = 1;
+    
+    private static final int HEADER_BYTES = 10;
+    private static final int UNIFORM_HEADER_BYTES = 16;
+    private static final int BLOCK_POINTS = 4096;
+    // Худший случай точки: 4 + 64 бита абсциссы и 2 + 12 + 64 бита ординаты
+    private static final int MAX_POINT_BYTES = 19;
+    private static final int MAX_BLOCK_BYTES = BLOCK_POINTS * MAX_POINT_BYTES + 8;
+    
+    private TabulatedCompressedCodec() {
+        throw new AssertionError("Cannot instantiate utility class");
+    }
+    
+    static void write(TabulatedFunction function, WritableByteChannel out) throws IOException {
+        int pointCount = function.getPointCount();
+        double leftX = function.getPointX(0);
+        double step = uniformStep(function);
+        boolean uniform = !Double.isNaN(step);
+        
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + UNIFORM_HEADER_BYTES);
+        header.putInt(MAGIC).put((byte) VERSION).put((byte) (uniform ? UNIFORM : 0)).putInt(pointCount);
+        if (uniform) {
+            header.putDouble(leftX).putDouble(step);
+        }
+        header.limit(header.position());
+        TabulatedBinaryCodec.writeFully(header, out);
+        
+        BitWriter bits = new BitWriter(ByteBuffer.allocate(4 + MAX_BLOCK_BYTES));
+        XEncoder xs = new XEncoder();
+        YEncoder ys = new YEncoder();
+        double[] xValues = new double[BLOCK_POINTS];
+        double[] yValues = new double[BLOCK_POINTS];
+        for (int from = 0; from < pointCount; from += BLOCK_POINTS) {
+            int n = Math.min(BLOCK_POINTS, pointCount - from);
+            if (uniform) {
+                function.copyYs(yValues, from, n);
+            } else {
+                function.copyPoints(xValues, yValues, from, n);
+            }
+            bits.startBlock();
+            for (int j = 0; j < n; j++) {
+                if (!uniform) {
+                    xs.encode(xValues[j], bits);
+                }
+                ys.encode(yValues[j], bits);
+            }
+            bits.finishBlock(out);
+        }
+    }
+    
+    static TabulatedFunction read(ReadableByteChannel in) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + UNIFORM_HEADER_BYTES);
+        header.limit(HEADER_BYTES);
+        TabulatedBinaryCodec.readFully(header, in);
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("Not a compressed tabulated function");
+        }
+        int version = header.get(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported format version: " + version);
+        }
+        boolean uniform = (header.get(5) & UNIFORM) != 0;
+        int pointCount = header.getInt(6);
+        if (pointCount < 2) {
+            throw new IOException("Invalid point count: " + pointCount);
+        }
+        
+        double leftX = 0;
+        double step = 0;
+        if (uniform) {
+            header.limit(UNIFORM_HEADER_BYTES);
+            TabulatedBinaryCodec.readFully(header, in);
+            leftX = header.getDouble(0);
+            step = header.getDouble(8);
+            if (!(step > 0) || Double.isInfinite(leftX + (pointCount - 1) * step)) {
+                throw new IOException("Invalid grid: leftX " + leftX + ", step " + step);
+            }
+        }
+        
+        double[] xValues = uniform ? null : new double[pointCount];
+        double[] yValues = new double[pointCount];
+        BitReader bits = new BitReader(MAX_BLOCK_BYTES);
+        XDecoder xs = new XDecoder();
+        YDecoder ys = new YDecoder();
+        for (int from = 0; from < pointCount; from += BLOCK_POINTS) {
+            int to = Math.min(from + BLOCK_POINTS, pointCount);
+            bits.readBlock(in);
+            for (int i = from; i < to; i++) {
+                if (!uniform) {
+                    xValues[i] = xs.decode(bits);
+                }
+                yValues[i] = ys.decode(bits);
+            }
+        }
+        
+        if (uniform) {
+            return UniformTabulatedFunction.withStep(leftX, step, yValues);
+        }
+        try {
+            ArrayTabulatedFunction.checkValues(xValues, yValues);
+            return ArrayTabulatedFunction.wrap(xValues, yValues, pointCount);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupted data: " + e.getMessage(), e);
+        }
+    }
+    
+    // Шаг, при котором все абсциссы побитово равны leftX + i * step, или NaN
+    private static double uniformStep(TabulatedFunction function) {
+        int pointCount = function.getPointCount();
+        double leftX = function.getPointX(0);
+        double step;
+        if (function instanceof UniformTabulatedFunction && ((UniformTabulatedFunction) function).isUniform()) {
+            step = ((UniformTabulatedFunction) function).getStep();
+        } else {
+            step = (function.getPointX(pointCount - 1) - leftX) / (pointCount - 1);
+        }
+        
+        double[] xValues = new double[BLOCK_POINTS];
+        for (int from = 0; from < pointCount; from += BLOCK_POINTS) {
+            int n = Math.min(BLOCK_POINTS, pointCount - from);
+            function.copyXs(xValues, from, n);
+            for (int j = 0; j < n; j++) {
+                if (Double.doubleToRawLongBits(leftX + (from + j) * step) != Double.doubleToRawLongBits(xValues[j])) {
+                    return Double.NaN;
+                }
+            }
+        }
+        return step;
+    }
+    
+    // Биты double, упорядоченные как сами числа: возрастающим абсциссам соответствуют возрастающие ключи
+    private static long orderedKey(double x) {
+        long bits = Double.doubleToRawLongBits(x);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+    
+    private static double fromOrderedKey(long key) {
+        return Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+    }
+    
+    // Абсциссы: первая — 64 бита ключа, дальше разность второго порядка в zigzag-коде:
+    // 0 — '0', до 2^7 — '10', до 2^12 — '110', до 2^20 — '1110', иначе '1111' и 64 бита
+    private static final class XEncoder {
+        private boolean first = true;
+        private long key;
+        private long delta;
+        
+        void encode(double x, BitWriter bits) {
+            long next = orderedKey(x);
+            if (first) {
+                bits.write(next, 64);
+                first = false;
+            } else {
+                long d = next - key;
+                long dod = d - delta;
+                long zigzag = (dod << 1) ^ (dod >> 63);
+                if (zigzag == 0) {
+                    bits.write(0, 1);
+                } else if ((zigzag >>> 7) == 0) {
+                    bits.write((0b10L << 7) | zigzag, 9);
+                } else if ((zigzag >>> 12) == 0) {
+                    bits.write((0b110L << 12) | zigzag, 15);
+                } else if ((zigzag >>> 20) == 0) {
+                    bits.write((0b1110L << 20) | zigzag, 24);
+                } else {
+                    bits.write(0b1111, 4);
+                    bits.write(zigzag, 64);
+                }
+                delta = d;
+            }
+            key = next;
+        }
+    }
+    
+    private static final class XDecoder {
+        private boolean first = true;
+        private long key;
+        private long delta;
+        
+        double decode(BitReader bits) throws IOException {
+            if (first) {
+                key = bits.read(64);
+                first = false;
+                return fromOrderedKey(key);
+            }
+            
+            long zigzag;
+            if (bits.read(1) == 0) {
+                zigzag = 0;
+            } else if (bits.read(1) == 0) {
+                zigzag = bits.read(7);
+            } else if (bits.read(1) == 0) {
+                zigzag = bits.read(12);
+            } else if (bits.read(1) == 0) {
+                zigzag = bits.read(20);
+            } else {
+                zigzag = bits.read(64);
+            }
+            delta += (zigzag >>> 1) ^ -(zigzag & 1);
+            key += delta;
+            return fromOrderedKey(key);
+        }
+    }
+    
+    // Ординаты: первая — 64 бита, дальше XOR с предыдущей: '0' — совпадение;
+    // '10' — значащие биты в окне предыдущего XOR; '11', 6 бит числа ведущих нулей,
+    // 6 бит (длина - 1) и значащие биты — новое окно
+    private static final class YEncoder {
+        private boolean first = true;
+        private long previous;
+        private int leading = -1;
+        private int trailing;
+        
+        void encode(double y, BitWriter bits) {
+            long next = Double.doubleToRawLongBits(y);
+            if (first) {
+                bits.write(next, 64);
+                first = false;
+                previous = next;
+                return;
+            }
+            
+            long xor = next ^ previous;
+            previous = next;
+            if (xor == 0) {
+                bits.write(0, 1);
+                return;
+            }
+            
+            int lead = Long.numberOfLeadingZeros(xor);
+            int trail = Long.numberOfTrailingZeros(xor);
+            if (leading >= 0 && lead >= leading && trail >= trailing) {
+                bits.write(0b10, 2);
+                bits.write(xor >>> trailing, 64 - leading - trailing);
+            } else {
+                int length = 64 - lead - trail;
+                bits.write((0b11L << 12) | ((long) lead << 6) | (length - 1), 14);
+                bits.write(xor >>> trail, length);
+                leading = lead;
+                trailing = trail;
+            }
+        }
+    }
+    
+    private static final class YDecoder {
+        private boolean first = true;
+        private long previous;
+        private int leading;
+        private int trailing;
+        
+        double decode(BitReader bits) throws IOException {
+            if (first) {
+                previous = bits.read(64);
+                first = false;
+            } else if (bits.read(1) != 0) {
+                if (bits.read(1) != 0) {
+                    leading = (int) bits.read(6);
+                    int length = (int) bits.read(6) + 1;
+                    trailing = 64 - leading - length;
+                    if (trailing < 0) {
+                        throw new IOException("Corrupted data: invalid XOR window");
+                    }
+                }
+                previous ^= bits.read(64 - leading - trailing) << trailing;
+            }
+            return Double.longBitsToDouble(previous);
+        }
+    }
+    
+    // Запись битов старшими вперёд; блок предваряется своей длиной в байтах
+    private static final class BitWriter {
+        private final ByteBuffer buffer;
+        private long accumulator;
+        private int free = 64;
+        
+        BitWriter(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+        
+        void startBlock() {
+            buffer.clear();
+            buffer.position(4);
+        }
+        
+        // Младшие n битов value, 1 <= n <= 64
+        void write(long value, int n) {
+            value &= -1L >>> (64 - n);
+            if (n < free) {
+                accumulator = (accumulator << n) | value;
+                free -= n;
+                return;
+            }
+            
+            int rest = n - free;
+            accumulator = (accumulator << free) | (value >>> rest);
+            buffer.putLong(accumulator);
+            accumulator = (rest == 0) ? 0 : value & (-1L >>> (64 - rest));
+            free = 64 - rest;
+        }
+        
+        void finishBlock(WritableByteChannel out) throws IOException {
+            int used = 64 - free;
+            long rest = (used == 0) ? 0 : accumulator << free;
+            for (int shift = 56; used > 0; shift -= 8, used -= 8) {
+                buffer.put((byte) (rest >>> shift));
+            }
+            accumulator = 0;
+            free = 64;
+            
+            buffer.putInt(0, buffer.position() - 4);
+            buffer.limit(buffer.position());
+            TabulatedBinaryCodec.writeFully(buffer, out);
+        }
+    }
+    
+    // Чтение битов по номеру бита в блоке: n битов берутся из одного long, прочитанного с байта номера,
+    // поэтому за буфером оставлено 8 байт запаса
+    private static final class BitReader {
+        private final ByteBuffer buffer;
+        private final ByteBuffer length = ByteBuffer.allocate(4);
+        private long position;
+        private long limit;
+        
+        BitReader(int capacity) {
+            this.buffer = ByteBuffer.allocate(capacity + 8);
+        }
+        
+        void readBlock(ReadableByteChannel in) throws IOException {
+            TabulatedBinaryCodec.readFully(length, in);
+            int size = length.getInt(0);
+            if (size < 0 || size > buffer.capacity() - 8) {
+                throw new IOException("Corrupted data: invalid block length " + size);
+            }
+            buffer.clear().limit(size);
+            TabulatedBinaryCodec.readFully(buffer, in);
+            buffer.limit(buffer.capacity());
+            position = 0;
+            limit = 8L * size;
+        }
+        
+        // n битов, 1 <= n <= 64
+        long read(int n) throws IOException {
+            if (n > 56) {
+                long high = read(n - 32);
+                return (high << 32) | read(32);
+            }
+            
+            if (position + n > limit) {
+                throw new IOException("Corrupted data: block is too short");
+            }
+            long word = buffer.getLong((int) (position >>> 3));
+            long value = (word << (position & 7)) >>> (64 - n);
+            position += n;
+            return value;
+        }
+    }
+}
\ No newline at end of file
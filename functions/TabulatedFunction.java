@@ -1,5 +1,7 @@
 package functions;
 
+import java.nio.DoubleBuffer;
+
 public interface TabulatedFunction extends Function, java.io.Serializable {
     int getPointCount();
     double getPointX(int index) throws FunctionPointIndexOutOfBoundsException;
@@ -10,4 +12,57 @@ public interface TabulatedFunction extends Function, java.io.Serializable {
     void setPoint(int index, FunctionPoint point) throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException;
     void addPoint(FunctionPoint point) throws InappropriateFunctionPointException;
     void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException, IllegalStateException;
+    
+    // Добавление набора точек в любом порядке: все или ни одной. Реализации пакета
+    // сливают упорядоченный набор с точками за один проход, O(n + m log m)
+    default void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        PointBatch batch = PointBatch.of(points);
+        addPoints(batch.xs, batch.ys);
+    }
+    
+    default void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        PointBatch batch = PointBatch.of(xs, ys);
+        batch.checkAgainst(this);
+        for (int i = 0; i < batch.size(); i++) {
+            addPoint(new FunctionPoint(batch.xs[i], batch.ys[i]));
+        }
+    }
+    
+    // Абсциссы точек from..from+length-1 копируются в dst[0..length-1] за один вызов
+    // вместо length вызовов getPointX. Реализации пакета копируют массивами
+    default void copyXs(double[] dst, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        FunctionPointIndexOutOfBoundsException.checkRange(from, length, getPointCount());
+        for (int i = 0; i < length; i++) {
+            dst[i] = getPointX(from + i);
+        }
+    }
+    
+    default void copyYs(double[] dst, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        FunctionPointIndexOutOfBoundsException.checkRange(from, length, getPointCount());
+        for (int i = 0; i < length; i++) {
+            dst[i] = getPointY(from + i);
+        }
+    }
+    
+    // Точки from..from+length-1 в xs и ys. Реализации, где copyXs и copyYs —
+    // отдельные проходы по изменяемой структуре, копируют пары за один проход
+    default void copyPoints(double[] xs, double[] ys, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        copyXs(xs, from, length);
+        copyYs(ys, from, length);
+    }
+    
+    // Абсциссы всех точек в буфере только для чтения (позиция 0, limit — число точек).
+    // Реализации, хранящие точки в массиве, возвращают представление без копирования:
+    // изменения точек видны в нём до первой вставки или удаления. Остальные возвращают копию
+    default DoubleBuffer xView() {
+        double[] xs = new double[getPointCount()];
+        copyXs(xs, 0, xs.length);
+        return DoubleBuffer.wrap(xs).asReadOnlyBuffer();
+    }
+    
+    default DoubleBuffer yView() {
+        double[] ys = new double[getPointCount()];
+        copyYs(ys, 0, ys.length);
+        return DoubleBuffer.wrap(ys).asReadOnlyBuffer();
+    }
 }
\ No newline at end of file
@@ -1,8 +1,23 @@
 package functions;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public final class TabulatedFunctions {
+    private static final int DEFAULT_TABULATION_THRESHOLD = 8192;
+    // Адаптивное табулирование начинается не менее чем с 2^4 отрезков
+    private static final int MIN_ADAPTIVE_DEPTH = 4;
+    // Запас при объединении отрезков: между вычисленными точками отклонение хорды может быть больше
+    private static final double MERGE_ERROR_RATIO = 0.9;
+    
     private TabulatedFunctions() {
         throw new AssertionError("Cannot instantiate utility class");
     }
@@ -12,103 +27,308 @@ public final class TabulatedFunctions {
                                             double leftX, 
                                             double rightX, 
                                             int pointsCount) {
-        if (leftX < function.getLeftDomainBorder() || 
-            rightX > function.getRightDomainBorder()) {
-            throw new IllegalArgumentException("Tabulation interval is outside function domain");
+        checkTabulationParameters(function, leftX, rightX, pointsCount);
+        
+        double[] yValues = new double[pointsCount];
+        
+        // Абсциссы равноотстоящие, поэтому хранить их не нужно
+        double step = (rightX - leftX) / (pointsCount - 1);
+        for (int i = 0; i < pointsCount; i++) {
+            yValues[i] = function.getFunctionValue(leftX + i * step);
         }
         
-        if (pointsCount < 2) {
-            throw new IllegalArgumentException("At least 2 points required");
+        return UniformTabulatedFunction.withStep(leftX, step, yValues);
+    }
+    
+    // Параллельное табулирование: сетка делится на задачи fork/join не мельче threshold точек.
+    // Значения совпадают с tabulate побитово; функция должна допускать одновременные вызовы
+    // getFunctionValue (LinkedListTabulatedFunction этого не допускает: чтение сдвигает курсор).
+    public static TabulatedFunction tabulateParallel(Function function,
+                                                    double leftX,
+                                                    double rightX,
+                                                    int pointsCount,
+                                                    int parallelism,
+                                                    int threshold) {
+        checkTabulationParameters(function, leftX, rightX, pointsCount);
+        
+        if (parallelism < 1 || threshold < 1) {
+            throw new IllegalArgumentException("Parallelism and threshold must be positive");
         }
         
-        double[] xValues = new double[pointsCount];
         double[] yValues = new double[pointsCount];
-        
         double step = (rightX - leftX) / (pointsCount - 1);
-        for (int i = 0; i < pointsCount; i++) {
-            xValues[i] = leftX + i * step;
-            yValues[i] = function.getFunctionValue(xValues[i]);
+        
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new TabulateTask(function, leftX, step, yValues, 0, pointsCount, threshold));
+        } finally {
+            pool.shutdown();
         }
         
-        return new ArrayTabulatedFunction(xValues, yValues);
+        return UniformTabulatedFunction.withStep(leftX, step, yValues);
     }
     
-    // Задание 7: байтовые потоки
-    public static void outputTabulatedFunction(TabulatedFunction function, 
-                                              OutputStream out) throws IOException {
-        try (DataOutputStream dataOut = new DataOutputStream(out)) {
-            int pointCount = function.getPointCount();
-            dataOut.writeInt(pointCount);
-            
-            for (int i = 0; i < pointCount; i++) {
-                dataOut.writeDouble(function.getPointX(i));
-                dataOut.writeDouble(function.getPointY(i));
-            }
+    public static TabulatedFunction tabulateParallel(Function function,
+                                                    double leftX,
+                                                    double rightX,
+                                                    int pointsCount) {
+        return tabulateParallel(function, leftX, rightX, pointsCount,
+                                Runtime.getRuntime().availableProcessors(), DEFAULT_TABULATION_THRESHOLD);
+    }
+    
+    // Адаптивное табулирование: отрезок делится пополам, пока линейная интерполяция
+    // отклоняется от функции больше чем на maxError в точках 1/4, 1/2 и 3/4 отрезка.
+    // Первые MIN_ADAPTIVE_DEPTH делений выполняются всегда, чтобы редкие пробные точки
+    // не совпали по фазе с периодической функцией. Узлы результата затем выбираются
+    // среди всех вычисленных точек так, чтобы отрезков было как можно меньше.
+    // Деление прекращается на отрезках короче 4 * EPS и там, где значения функции не конечны.
+    // Отклонение не больше maxError гарантируется только в вычисленных точках: между ними
+    // на быстро меняющихся функциях оно может немного превышать maxError. Кроме того,
+    // getFunctionValue в пределах EPS от узла возвращает значение узла, что на крутых
+    // участках добавляет до |f'| * EPS.
+    public static TabulatedFunction tabulateAdaptive(Function function,
+                                                    double leftX,
+                                                    double rightX,
+                                                    double maxError) {
+        checkTabulationParameters(function, leftX, rightX, 2);
+        
+        if (!(leftX < rightX)) {
+            throw new IllegalArgumentException("Invalid parameters: leftX must be less than rightX");
+        }
+        if (!(maxError > 0)) {
+            throw new IllegalArgumentException("Max error must be positive");
         }
+        
+        AdaptiveTabulation tabulation = new AdaptiveTabulation(function, maxError);
+        double middleX = leftX + (rightX - leftX) / 2;
+        double rightY = function.getFunctionValue(rightX);
+        tabulation.subdivide(leftX, function.getFunctionValue(leftX),
+                             middleX, function.getFunctionValue(middleX), rightX, rightY, 0);
+        tabulation.add(rightX, rightY);
+        
+        return tabulation.merge();
     }
     
-    public static TabulatedFunction inputTabulatedFunction(InputStream in) 
-            throws IOException {
-        try (DataInputStream dataIn = new DataInputStream(in)) {
-            int pointCount = dataIn.readInt();
+    // Все вычисленные точки в порядке возрастания x
+    private static class AdaptiveTabulation {
+        private final Function function;
+        private final double maxError;
+        private double[] xValues = new double[64];
+        private double[] yValues = new double[64];
+        private int size;
+        
+        AdaptiveTabulation(Function function, double maxError) {
+            this.function = function;
+            this.maxError = maxError;
+        }
+        
+        void add(double x, double y) {
+            if (size == xValues.length) {
+                xValues = Arrays.copyOf(xValues, size * 2);
+                yValues = Arrays.copyOf(yValues, size * 2);
+            }
+            xValues[size] = x;
+            yValues[size] = y;
+            size++;
+        }
+        
+        // Добавляет точки отрезка [x1, x2) со значением ym в середине xm
+        void subdivide(double x1, double y1, double xm, double ym, double x2, double y2, int depth) {
+            double q1 = x1 + (xm - x1) / 2;
+            double q3 = xm + (x2 - xm) / 2;
             
-            double[] xValues = new double[pointCount];
-            double[] yValues = new double[pointCount];
+            if (q1 - x1 <= FunctionPoint.EPS) {
+                add(x1, y1);
+                add(xm, ym);
+                return;
+            }
+            
+            double yq1 = function.getFunctionValue(q1);
+            double yq3 = function.getFunctionValue(q3);
             
-            for (int i = 0; i < pointCount; i++) {
-                xValues[i] = dataIn.readDouble();
-                yValues[i] = dataIn.readDouble();
+            // Сравнение ложно для NaN: в точках разрыва делить отрезок бесполезно
+            if (depth >= MIN_ADAPTIVE_DEPTH
+                    && !(error(x1, y1, x2, y2, q1, yq1) > maxError)
+                    && !(error(x1, y1, x2, y2, xm, ym) > maxError)
+                    && !(error(x1, y1, x2, y2, q3, yq3) > maxError)) {
+                add(x1, y1);
+                add(q1, yq1);
+                add(xm, ym);
+                add(q3, yq3);
+                return;
             }
+            subdivide(x1, y1, q1, yq1, xm, ym, depth + 1);
+            subdivide(xm, ym, q3, yq3, x2, y2, depth + 1);
+        }
+        
+        // Отклонение хорды (x1, y1) - (x2, y2) от точки (x, y)
+        private static double error(double x1, double y1, double x2, double y2, double x, double y) {
+            return Math.abs(y1 + (y2 - y1) * (x - x1) / (x2 - x1) - y);
+        }
+        
+        private boolean chordFits(int from, int to) {
+            double limit = MERGE_ERROR_RATIO * maxError;
+            for (int k = from + 1; k < to; k++) {
+                double e = error(xValues[from], yValues[from], xValues[to], yValues[to], xValues[k], yValues[k]);
+                if (!(e <= limit)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        // Жадный выбор узлов: от каждого узла хорда продлевается до самой дальней вычисленной точки,
+        // при которой все точки между ними остаются в пределах maxError (с запасом MERGE_ERROR_RATIO)
+        TabulatedFunction merge() {
+            double[] xs = new double[size];
+            double[] ys = new double[size];
+            xs[0] = xValues[0];
+            ys[0] = yValues[0];
+            int count = 1;
             
-            return new ArrayTabulatedFunction(xValues, yValues);
+            int anchor = 0;
+            int candidate = 0;
+            for (int k = 1; k < size; k++) {
+                if (candidate != anchor && !chordFits(anchor, k)) {
+                    xs[count] = xValues[candidate];
+                    ys[count] = yValues[candidate];
+                    count++;
+                    anchor = candidate;
+                }
+                candidate = k;
+            }
+            xs[count] = xValues[candidate];
+            ys[count] = yValues[candidate];
+            count++;
+            
+            return ArrayTabulatedFunction.wrap(Arrays.copyOf(xs, count), Arrays.copyOf(ys, count), count);
         }
     }
     
-    // Задание 7: символьные потоки
-    public static void writeTabulatedFunction(TabulatedFunction function, 
-                                             Writer out) throws IOException {
-        PrintWriter writer = new PrintWriter(out);
-        int pointCount = function.getPointCount();
-        writer.print(pointCount);
+    private static void checkTabulationParameters(Function function, double leftX, double rightX, int pointsCount) {
+        if (leftX < function.getLeftDomainBorder() || 
+            rightX > function.getRightDomainBorder()) {
+            throw new IllegalArgumentException("Tabulation interval is outside function domain");
+        }
         
-        for (int i = 0; i < pointCount; i++) {
-            writer.print(" " + function.getPointX(i));
-            writer.print(" " + function.getPointY(i));
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("At least 2 points required");
         }
-        writer.flush();
-        // Не закрываем writer, чтобы не закрывать переданный out
     }
     
-    public static TabulatedFunction readTabulatedFunction(Reader in) 
-            throws IOException {
-        StreamTokenizer tokenizer = new StreamTokenizer(in);
-        tokenizer.parseNumbers();
+    // Вычисляет значения в точках [from, to) сетки, деля диапазон пополам до размера threshold
+    private static class TabulateTask extends RecursiveAction {
+        private final Function function;
+        private final double leftX;
+        private final double step;
+        private final double[] yValues;
+        private final int from;
+        private final int to;
+        private final int threshold;
         
-        // Читаем количество точек
-        if (tokenizer.nextToken() != StreamTokenizer.TT_NUMBER) {
-            throw new IOException("Expected number of points");
-        }
-        int pointCount = (int) tokenizer.nval;
+        private static final long serialVersionUID = 1L;
         
-        if (pointCount < 2) {
-            throw new IOException("At least 2 points required");
+        TabulateTask(Function function, double leftX, double step, double[] yValues, int from, int to, int threshold) {
+            this.function = function;
+            this.leftX = leftX;
+            this.step = step;
+            this.yValues = yValues;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
         }
         
-        double[] xValues = new double[pointCount];
-        double[] yValues = new double[pointCount];
-        
-        for (int i = 0; i < pointCount; i++) {
-            if (tokenizer.nextToken() != StreamTokenizer.TT_NUMBER) {
-                throw new IOException("Expected X value");
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; i++) {
+                    yValues[i] = function.getFunctionValue(leftX + i * step);
+                }
+                return;
             }
-            xValues[i] = tokenizer.nval;
             
-            if (tokenizer.nextToken() != StreamTokenizer.TT_NUMBER) {
-                throw new IOException("Expected Y value");
-            }
-            yValues[i] = tokenizer.nval;
+            int middle = (from + to) >>> 1;
+            invokeAll(new TabulateTask(function, leftX, step, yValues, from, middle, threshold),
+                      new TabulateTask(function, leftX, step, yValues, middle, to, threshold));
         }
-        
-        return new ArrayTabulatedFunction(xValues, yValues);
+    }
+    
+    // Задание 7: байтовые потоки
+    // Формат: int count, затем count пар (double x, double y), big-endian (см. TabulatedBinaryCodec)
+    public static void outputTabulatedFunction(TabulatedFunction function, 
+                                              OutputStream out) throws IOException {
+        // Поток out не закрывается
+        TabulatedBinaryCodec.write(function, Channels.newChannel(out));
+        out.flush();
+    }
+    
+    public static void outputTabulatedFunction(TabulatedFunction function, 
+                                              WritableByteChannel out) throws IOException {
+        TabulatedBinaryCodec.write(function, out);
+    }
+    
+    public static TabulatedFunction inputTabulatedFunction(InputStream in) 
+            throws IOException {
+        // Из потока читаются только байты функции, поток не закрывается
+        return TabulatedBinaryCodec.read(new TabulatedPointReader(Channels.newChannel(in)));
+    }
+    
+    public static TabulatedFunction inputTabulatedFunction(ReadableByteChannel in) 
+            throws IOException {
+        return TabulatedBinaryCodec.read(new TabulatedPointReader(in));
+    }
+    
+    // Чтение точек порциями без построения функции: заголовок читается сразу,
+    // точки — при вызовах TabulatedPointReader.read
+    public static TabulatedPointReader openPoints(ReadableByteChannel in) throws IOException {
+        return new TabulatedPointReader(in);
+    }
+    
+    // Сжатый двоичный формат (см. TabulatedCompressedCodec): равномерная сетка хранится
+    // как leftX и шаг, остальные абсциссы и ординаты сжимаются без потерь.
+    // Файлы outputTabulatedFunction этими методами не читаются
+    public static void outputCompressedTabulatedFunction(TabulatedFunction function, 
+                                                        OutputStream out) throws IOException {
+        // Поток out не закрывается
+        TabulatedCompressedCodec.write(function, Channels.newChannel(out));
+        out.flush();
+    }
+    
+    public static void outputCompressedTabulatedFunction(TabulatedFunction function, 
+                                                        WritableByteChannel out) throws IOException {
+        TabulatedCompressedCodec.write(function, out);
+    }
+    
+    public static TabulatedFunction inputCompressedTabulatedFunction(InputStream in) 
+            throws IOException {
+        return TabulatedCompressedCodec.read(Channels.newChannel(in));
+    }
+    
+    public static TabulatedFunction inputCompressedTabulatedFunction(ReadableByteChannel in) 
+            throws IOException {
+        return TabulatedCompressedCodec.read(in);
+    }
+    
+    // Файл формата outputTabulatedFunction, отображённый в память без чтения и копирования точек.
+    // Открытие не зависит от размера файла; страницы загружаются при обращении
+    // и разделяются между процессами. Функция доступна только для чтения.
+    public static TabulatedFunction map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Отображение остаётся действительным после закрытия канала
+            return MappedTabulatedFunction.map(channel);
+        }
+    }
+    
+    // Задание 7: символьные потоки
+    // Формат: число точек, затем абсциссы и ординаты через пробел (см. TabulatedTextCodec)
+    public static void writeTabulatedFunction(TabulatedFunction function, 
+                                             Writer out) throws IOException {
+        // Поток out не закрывается
+        TabulatedTextCodec.write(function, out);
+    }
+    
+    public static TabulatedFunction readTabulatedFunction(Reader in) 
+            throws IOException {
+        return TabulatedTextCodec.read(in);
     }
 }
\ No newline at end of file
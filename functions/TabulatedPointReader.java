@@ -0,0 +1,70 @@
+package functions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+// Потоковое чтение точек из канала в формате outputTabulatedFunction
+// (см. TabulatedFunctions.openPoints): точки выдаются порциями в массивы вызывающего,
+// поэтому файл любого размера обрабатывается в памяти одного блока.
+// Из канала читаются только байты функции; канал не закрывается.
+public final class TabulatedPointReader {
+    private final ReadableByteChannel channel;
+    private final int pointCount;
+    private int remaining;
+    
+    private final ByteBuffer buffer;
+    private final DoubleBuffer doubles;
+    private final double[] block;
+    
+    TabulatedPointReader(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(TabulatedBinaryCodec.BLOCK_POINTS * TabulatedBinaryCodec.POINT_BYTES);
+        this.doubles = buffer.asDoubleBuffer();
+        this.block = new double[2 * TabulatedBinaryCodec.BLOCK_POINTS];
+        
+        buffer.limit(TabulatedBinaryCodec.HEADER_BYTES);
+        TabulatedBinaryCodec.readFully(buffer, channel);
+        this.pointCount = buffer.getInt(0);
+        if (pointCount < 2) {
+            throw new IOException("Invalid point count: " + pointCount);
+        }
+        this.remaining = pointCount;
+    }
+    
+    public int getPointCount() {
+        return pointCount;
+    }
+    
+    // Число ещё не прочитанных точек
+    public int getRemainingCount() {
+        return remaining;
+    }
+    
+    // Чтение не более length точек в xs[offset..] и ys[offset..];
+    // возвращает число прочитанных точек или -1, если все точки уже прочитаны
+    public int read(double[] xs, double[] ys, int offset, int length) throws IOException {
+        if (offset < 0 || length < 0 || offset + length > xs.length || offset + length > ys.length) {
+            throw new IndexOutOfBoundsException("Invalid range: offset " + offset + ", length " + length);
+        }
+        if (remaining == 0) {
+            return -1;
+        }
+        
+        int n = Math.min(Math.min(length, remaining), TabulatedBinaryCodec.BLOCK_POINTS);
+        buffer.limit(n * TabulatedBinaryCodec.POINT_BYTES);
+        TabulatedBinaryCodec.readFully(buffer, channel);
+        doubles.get(0, block, 0, 2 * n);
+        for (int j = 0; j < n; j++) {
+            xs[offset + j] = block[2 * j];
+            ys[offset + j] = block[2 * j + 1];
+        }
+        remaining -= n;
+        return n;
+    }
+    
+    public int read(double[] xs, double[] ys) throws IOException {
+        return read(xs, ys, 0, Math.min(xs.length, ys.length));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,581 @@
+package functions;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+// Текстовый формат табулированной функции (см. TabulatedFunctions.writeTabulatedFunction):
+// число точек, затем абсциссы и ординаты через пробел.
+// Запись и чтение идут блоками через массив символов, без промежуточных строк.
+// Числа записываются кратчайшей десятичной записью, которая читается обратно точно
+// (алгоритм Schubfach, в формате Double.toString), и разбираются точно: короткие записи —
+// умножением на точную степень десяти (Clinger), остальные — алгоритмом Eisel-Lemire;
+// неоднозначные случаи передаются Double.parseDouble.
+final class TabulatedTextCodec {
+    private static final int BUFFER_SIZE = 8192;
+    // Самая длинная запись точки: два пробела и по 24 символа на число
+    private static final int MAX_POINT_LENGTH = 64;
+    // Точки берутся из функции порциями через copyPoints
+    private static final int BLOCK_POINTS = 1024;
+    
+    private static final double[] EXACT_POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    
+    // 128-битные мантиссы 10^e, округлённые вниз, для e из [MIN_EXP10, MAX_EXP10]
+    private static final int MIN_EXP10 = -348;
+    private static final int MAX_EXP10 = 347;
+    private static final long[] POWERS_HI = new long[MAX_EXP10 - MIN_EXP10 + 1];
+    private static final long[] POWERS_LO = new long[MAX_EXP10 - MIN_EXP10 + 1];
+    
+    // Мантиссы g = floor(10^(-k) 2^(-r)) + 1 из [2^125, 2^126) для Schubfach, k из [MIN_K, MAX_K];
+    // хранятся как g1 = g >> 63 и g0 = g mod 2^63
+    private static final int MIN_K = -324;
+    private static final int MAX_K = 292;
+    private static final long[] G1 = new long[MAX_K - MIN_K + 1];
+    private static final long[] G0 = new long[MAX_K - MIN_K + 1];
+    
+    private static final long[] POWERS_OF_TEN = new long[18];
+    
+    static {
+        BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int e = MIN_EXP10; e <= MAX_EXP10; e++) {
+            BigInteger power = BigInteger.TEN.pow(Math.abs(e));
+            BigInteger mantissa;
+            if (e >= 0) {
+                int shift = power.bitLength() - 128;
+                mantissa = (shift > 0) ? power.shiftRight(shift) : power.shiftLeft(-shift);
+            } else {
+                mantissa = BigInteger.ONE.shiftLeft(127 + power.bitLength()).divide(power);
+            }
+            POWERS_HI[e - MIN_EXP10] = mantissa.shiftRight(64).longValue();
+            POWERS_LO[e - MIN_EXP10] = mantissa.and(mask).longValue();
+        }
+        
+        BigInteger mask63 = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+        for (int k = MIN_K; k <= MAX_K; k++) {
+            BigInteger power = BigInteger.TEN.pow(Math.abs(k));
+            BigInteger beta;
+            if (k <= 0) {
+                int r = power.bitLength() - 126;
+                beta = (r >= 0) ? power.shiftRight(r) : power.shiftLeft(-r);
+            } else {
+                beta = BigInteger.ONE.shiftLeft(power.bitLength() + 125).divide(power);
+            }
+            BigInteger g = beta.add(BigInteger.ONE);
+            G1[k - MIN_K] = g.shiftRight(63).longValue();
+            G0[k - MIN_K] = g.and(mask63).longValue();
+        }
+        
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+    
+    private TabulatedTextCodec() {
+        throw new AssertionError("Cannot instantiate utility class");
+    }
+    
+    static void write(TabulatedFunction function, Writer out) throws IOException {
+        char[] chars = new char[BUFFER_SIZE + MAX_POINT_LENGTH];
+        int pointCount = function.getPointCount();
+        String count = Integer.toString(pointCount);
+        count.getChars(0, count.length(), chars, 0);
+        int position = count.length();
+        
+        double[] xs = new double[BLOCK_POINTS];
+        double[] ys = new double[BLOCK_POINTS];
+        for (int from = 0; from < pointCount; from += BLOCK_POINTS) {
+            int n = Math.min(BLOCK_POINTS, pointCount - from);
+            function.copyPoints(xs, ys, from, n);
+            for (int j = 0; j < n; j++) {
+                chars[position++] = ' ';
+                position = formatDouble(xs[j], chars, position);
+                chars[position++] = ' ';
+                position = formatDouble(ys[j], chars, position);
+                if (position >= BUFFER_SIZE) {
+                    out.write(chars, 0, position);
+                    position = 0;
+                }
+            }
+        }
+        out.write(chars, 0, position);
+        out.flush();
+    }
+    
+    // Запись v в chars с позиции position в формате Double.toString с наименьшим числом цифр,
+    // при котором Double.parseDouble возвращает v (Schubfach, R. Giulietti);
+    // возвращает позицию после записи (не более 24 символов)
+    static int formatDouble(double v, char[] chars, int position) {
+        long bits = Double.doubleToRawLongBits(v);
+        long t = bits & ((1L << 52) - 1);
+        int bq = (int) (bits >>> 52) & 0x7FF;
+        
+        if (bq == 0x7FF) {
+            String special = (t != 0) ? "NaN" : (bits > 0) ? "Infinity" : "-Infinity";
+            special.getChars(0, special.length(), chars, position);
+            return position + special.length();
+        }
+        if (bits < 0) {
+            chars[position++] = '-';
+        }
+        if (bq != 0) {
+            // Нормализованное число c * 2^q
+            int mq = 1075 - bq;
+            long c = (1L << 52) | t;
+            // Целые значения меньше 2^53 записываются без поиска
+            if (0 < mq && mq < 53) {
+                long f = c >> mq;
+                if (f << mq == c) {
+                    return toChars(f, 0, chars, position);
+                }
+            }
+            return toDecimal(-mq, c, 0, chars, position);
+        }
+        if (t != 0) {
+            // Денормализованное число
+            return (t < 3) ? toDecimal(-1074, 10 * t, -1, chars, position) : toDecimal(-1074, t, 0, chars, position);
+        }
+        chars[position++] = '0';
+        chars[position++] = '.';
+        chars[position++] = '0';
+        return position;
+    }
+    
+    private static int toDecimal(int q, long c, int dk, char[] chars, int position) {
+        int out = (int) c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != (1L << 52) || q == -1074) {
+            // Соседние double на равном расстоянии
+            cbl = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            // Нижний сосед вдвое ближе
+            cbl = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+        int h = q + floorLog2Pow10(-k) + 2;
+        
+        long g1 = G1[k - MIN_K];
+        long g0 = G0[k - MIN_K];
+        long vb = roundToOdd(g1, g0, cb << h);
+        long vbl = roundToOdd(g1, g0, cbl << h);
+        long vbr = roundToOdd(g1, g0, cbr << h);
+        
+        long s = vb >> 2;
+        if (s >= 100) {
+            // Попытка обойтись на одну цифру меньше: s' = floor(s / 10)
+            long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return toChars(upin ? sp10 : tp10, k, chars, position);
+            }
+        }
+        
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return toChars(uin ? s : t, k + dk, chars, position);
+        }
+        // Подходят оба кандидата: выбирается ближайший к v, при равенстве — чётный
+        long cmp = vb - (s + t << 1);
+        return toChars((cmp < 0 || cmp == 0 && (s & 1) == 0) ? s : t, k + dk, chars, position);
+    }
+    
+    // Округление к нечётному произведения cp * g * 2^(-127), g = g1 * 2^63 + g0
+    private static long roundToOdd(long g1, long g0, long cp) {
+        long x1 = Math.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = Math.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & 0x7FFF_FFFF_FFFF_FFFFL) + 0x7FFF_FFFF_FFFF_FFFFL >>> 63;
+    }
+    
+    // floor(log10(2^e))
+    private static int floorLog10Pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+    
+    // floor(log10(3/4 * 2^e))
+    private static int floorLog10ThreeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L - 274_743_187_321L >> 41);
+    }
+    
+    // floor(log2(10^e))
+    private static int floorLog2Pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+    
+    // Запись f * 10^e, f > 0
+    private static int toChars(long f, int e, char[] chars, int position) {
+        // 10^(len - 1) <= f < 10^len
+        int len = floorLog10Pow2(Long.SIZE - Long.numberOfLeadingZeros(f));
+        if (f >= POWERS_OF_TEN[len]) {
+            len++;
+        }
+        
+        // Теперь f из 17 цифр и значение равно 0.f * 10^e
+        f *= POWERS_OF_TEN[17 - len];
+        e += len;
+        
+        // f = h * 10^16 + m * 10^8 + l
+        long hm = Math.multiplyHigh(f, 193_428_131_138_340_668L) >>> 20;
+        int l = (int) (f - 100_000_000L * hm);
+        int h = (int) (hm * 1_441_151_881L >>> 57);
+        int m = (int) (hm - 100_000_000 * h);
+        
+        if (0 < e && e <= 7) {
+            // Десятичная запись без ведущих нулей
+            chars[position++] = (char) ('0' + h);
+            int y = digitState(m);
+            int i = 1;
+            for (; i < e; i++) {
+                int d = 10 * y;
+                chars[position++] = (char) ('0' + (d >>> 28));
+                y = d & DIGIT_MASK;
+            }
+            chars[position++] = '.';
+            for (; i <= 8; i++) {
+                int d = 10 * y;
+                chars[position++] = (char) ('0' + (d >>> 28));
+                y = d & DIGIT_MASK;
+            }
+            return lowDigits(l, chars, position);
+        }
+        if (-3 < e && e <= 0) {
+            // Десятичная запись с ведущими нулями
+            chars[position++] = '0';
+            chars[position++] = '.';
+            for (; e < 0; e++) {
+                chars[position++] = '0';
+            }
+            chars[position++] = (char) ('0' + h);
+            position = eightDigits(m, chars, position);
+            return lowDigits(l, chars, position);
+        }
+        
+        // Экспоненциальная запись
+        chars[position++] = (char) ('0' + h);
+        chars[position++] = '.';
+        position = eightDigits(m, chars, position);
+        position = lowDigits(l, chars, position);
+        return exponent(e - 1, chars, position);
+    }
+    
+    private static final int DIGIT_MASK = (1 << 28) - 1;
+    
+    // Цифры a < 10^8 извлекаются слева направо умножением на 10 (y = (a + 1) * 2^28 / 10^8 - 1)
+    private static int digitState(int a) {
+        return (int) (Math.multiplyHigh((long) (a + 1) << 28, 193_428_131_138_340_668L) >>> 20) - 1;
+    }
+    
+    private static int eightDigits(int a, char[] chars, int position) {
+        int y = digitState(a);
+        for (int i = 0; i < 8; i++) {
+            int d = 10 * y;
+            chars[position++] = (char) ('0' + (d >>> 28));
+            y = d & DIGIT_MASK;
+        }
+        return position;
+    }
+    
+    // Младшие восемь цифр и удаление конечных нулей (кроме нуля сразу после точки)
+    private static int lowDigits(int l, char[] chars, int position) {
+        if (l != 0) {
+            position = eightDigits(l, chars, position);
+        }
+        while (chars[position - 1] == '0') {
+            position--;
+        }
+        if (chars[position - 1] == '.') {
+            position++;
+        }
+        return position;
+    }
+    
+    private static int exponent(int e, char[] chars, int position) {
+        chars[position++] = 'E';
+        if (e < 0) {
+            chars[position++] = '-';
+            e = -e;
+        }
+        if (e >= 100) {
+            chars[position++] = (char) ('0' + e / 100);
+            e %= 100;
+            chars[position++] = (char) ('0' + e / 10);
+        } else if (e >= 10) {
+            chars[position++] = (char) ('0' + e / 10);
+        }
+        chars[position++] = (char) ('0' + e % 10);
+        return position;
+    }
+    
+    // Поток читается блоками. Если in поддерживает mark/reset (BufferedReader, StringReader),
+    // в нём остаются символы после последнего числа и следом можно читать дальше;
+    // из потока без mark/reset (FileReader, InputStreamReader) они могут быть прочитаны
+    static TabulatedFunction read(Reader in) throws IOException {
+        Tokenizer tokenizer = new Tokenizer(in);
+        
+        int pointCount = (int) tokenizer.nextNumber("Expected number of points");
+        if (pointCount < 2) {
+            throw new IOException("At least 2 points required");
+        }
+        
+        double[] xValues = new double[pointCount];
+        double[] yValues = new double[pointCount];
+        
+        for (int i = 0; i < pointCount; i++) {
+            xValues[i] = tokenizer.nextNumber("Expected X value");
+            yValues[i] = tokenizer.nextNumber("Expected Y value");
+        }
+        tokenizer.finish();
+        
+        ArrayTabulatedFunction.checkValues(xValues, yValues);
+        return ArrayTabulatedFunction.wrap(xValues, yValues, pointCount);
+    }
+    
+    // Лексемы, разделённые пробельными символами (коды до ' ' включительно, как в StreamTokenizer)
+    private static final class Tokenizer {
+        private final Reader in;
+        private char[] buffer = new char[BUFFER_SIZE];
+        private int position;
+        private int limit;
+        // Индекс в buffer, соответствующий метке в in
+        private int markIndex;
+        
+        Tokenizer(Reader in) {
+            this.in = in;
+        }
+        
+        double nextNumber(String message) throws IOException {
+            while (true) {
+                while (position < limit && buffer[position] <= ' ') {
+                    position++;
+                }
+                if (position < limit) {
+                    break;
+                }
+                position = 0;
+                limit = 0;
+                if (!fill()) {
+                    throw new IOException(message);
+                }
+            }
+            
+            int start = position;
+            while (true) {
+                while (position < limit && buffer[position] > ' ') {
+                    position++;
+                }
+                if (position < limit) {
+                    break;
+                }
+                // Лексема дошла до конца буфера: переносим её в начало и дочитываем
+                int length = limit - start;
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                } else {
+                    System.arraycopy(buffer, start, buffer, 0, length);
+                }
+                start = 0;
+                position = length;
+                limit = length;
+                if (!fill()) {
+                    break;
+                }
+            }
+            
+            try {
+                return parseDouble(buffer, start, position);
+            } catch (NumberFormatException e) {
+                throw new IOException(message);
+            }
+        }
+        
+        // Возвращает в in символы, прочитанные после конца последней лексемы
+        void finish() throws IOException {
+            if (!in.markSupported() || position == limit) {
+                return;
+            }
+            in.reset();
+            long remaining = position - markIndex;
+            while (remaining > 0) {
+                long skipped = in.skip(remaining);
+                if (skipped <= 0) {
+                    throw new IOException("Cannot restore stream position");
+                }
+                remaining -= skipped;
+            }
+        }
+        
+        private boolean fill() throws IOException {
+            int space = buffer.length - limit;
+            if (in.markSupported()) {
+                // Метка в начале дочитываемой части, см. finish
+                in.mark(space);
+                markIndex = limit;
+            }
+            int count = in.read(buffer, limit, space);
+            if (count < 0) {
+                return false;
+            }
+            limit += count;
+            return true;
+        }
+    }
+    
+    // Число из chars[from, to) с тем же результатом, что Double.parseDouble
+    static double parseDouble(char[] chars, int from, int to) throws NumberFormatException {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        
+        // Не более 19 значащих цифр помещаются в long без знака
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean truncated = false;
+        boolean hasDigits = false;
+        
+        for (; i < to && chars[i] >= '0' && chars[i] <= '9'; i++) {
+            hasDigits = true;
+            if (digits < 19) {
+                mantissa = mantissa * 10 + (chars[i] - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+            } else {
+                exponent++;
+                truncated |= chars[i] != '0';
+            }
+        }
+        if (i < to && chars[i] == '.') {
+            for (i++; i < to && chars[i] >= '0' && chars[i] <= '9'; i++) {
+                hasDigits = true;
+                if (digits < 19) {
+                    mantissa = mantissa * 10 + (chars[i] - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    exponent--;
+                } else {
+                    truncated |= chars[i] != '0';
+                }
+            }
+        }
+        if (hasDigits && i < to && (chars[i] == 'e' || chars[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && (chars[i] == '-' || chars[i] == '+')) {
+                negativeExponent = chars[i] == '-';
+                i++;
+            }
+            int value = 0;
+            boolean hasExponentDigits = false;
+            for (; i < to && chars[i] >= '0' && chars[i] <= '9'; i++) {
+                hasExponentDigits = true;
+                // Дальше результат всё равно ноль или бесконечность
+                if (value < 100000) {
+                    value = value * 10 + (chars[i] - '0');
+                }
+            }
+            if (!hasExponentDigits) {
+                hasDigits = false;
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+        
+        // NaN, Infinity, шестнадцатеричная запись, суффиксы d и f, ошибки и длинные мантиссы
+        if (!hasDigits || i != to || truncated) {
+            return Double.parseDouble(new String(chars, from, to - from));
+        }
+        
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+        
+        // Мантисса и степень десяти представимы точно: одно округление при умножении
+        if (mantissa >= 0 && mantissa <= (1L << 53) && exponent >= -22 && exponent <= 22) {
+            double value = (double) mantissa;
+            value = (exponent < 0) ? value / EXACT_POWERS_OF_TEN[-exponent] : value * EXACT_POWERS_OF_TEN[exponent];
+            return negative ? -value : value;
+        }
+        
+        long bits = eiselLemire(mantissa, exponent);
+        if (bits < 0) {
+            return Double.parseDouble(new String(chars, from, to - from));
+        }
+        double value = Double.longBitsToDouble(bits);
+        return negative ? -value : value;
+    }
+    
+    // Биты числа mantissa * 10^exponent (mantissa без знака, ненулевая) или -1, если результат
+    // неоднозначен, денормализован или вне диапазона
+    private static long eiselLemire(long mantissa, int exponent) {
+        if (exponent < MIN_EXP10 || exponent > MAX_EXP10) {
+            return -1;
+        }
+        
+        int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+        mantissa <<= leadingZeros;
+        long exponent2 = ((217706L * exponent) >> 16) + 64 + 1023 - leadingZeros;
+        
+        int index = exponent - MIN_EXP10;
+        long hi = unsignedMultiplyHigh(mantissa, POWERS_HI[index]);
+        long lo = mantissa * POWERS_HI[index];
+        
+        // Младшие 64 бита степени нужны, только если старшего произведения не хватает для округления
+        if ((hi & 0x1FF) == 0x1FF && Long.compareUnsigned(lo + mantissa, mantissa) < 0) {
+            long yHi = unsignedMultiplyHigh(mantissa, POWERS_LO[index]);
+            long yLo = mantissa * POWERS_LO[index];
+            long mergedHi = hi;
+            long mergedLo = lo + yHi;
+            if (Long.compareUnsigned(mergedLo, lo) < 0) {
+                mergedHi++;
+            }
+            if ((mergedHi & 0x1FF) == 0x1FF && mergedLo + 1 == 0 && Long.compareUnsigned(yLo + mantissa, mantissa) < 0) {
+                return -1;
+            }
+            hi = mergedHi;
+            lo = mergedLo;
+        }
+        
+        int msb = (int) (hi >>> 63);
+        long result = hi >>> (msb + 9);
+        exponent2 -= 1 ^ msb;
+        
+        // Ровно посередине между двумя double
+        if (lo == 0 && (hi & 0x1FF) == 0 && (result & 3) == 1) {
+            return -1;
+        }
+        
+        result += result & 1;
+        result >>>= 1;
+        if ((result >>> 53) > 0) {
+            result >>>= 1;
+            exponent2++;
+        }
+        if (exponent2 <= 0 || exponent2 >= 0x7FF) {
+            return -1;
+        }
+        return (exponent2 << 52) | (result & 0x000FFFFFFFFFFFFFL);
+    }
+    
+    private static long unsignedMultiplyHigh(long a, long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+}
\ No newline at end of file
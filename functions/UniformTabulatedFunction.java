@@ -0,0 +1,420 @@
+package functions;
+
+import java.io.*;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+
+// Табулированная функция на равномерной сетке: хранятся только leftX, шаг и значения y.
+// Если изменение точек нарушает равномерность сетки, функция переходит
+// к явному хранению абсцисс и дальше работает как ArrayTabulatedFunction.
+public class UniformTabulatedFunction implements TabulatedFunction, DomainStamp.Tracked, Externalizable {
+    private double leftX;
+    private double step;
+    private double[] xValues;   // null, пока сетка равномерная
+    private double[] yValues;
+    private int pointCount;
+    
+    private static final long serialVersionUID = 1L;
+    
+    // Конструктор для Externalizable
+    public UniformTabulatedFunction() {
+        yValues = new double[10];
+        pointCount = 0;
+    }
+    
+    public UniformTabulatedFunction(double leftX, double rightX, int pointCount) throws IllegalArgumentException {
+        this(leftX, rightX, new double[Math.max(pointCount, 0)]);
+    }
+    
+    public UniformTabulatedFunction(double leftX, double rightX, double[] yValues) throws IllegalArgumentException {
+        if (leftX >= rightX || yValues.length < 2) {
+            throw new IllegalArgumentException("Invalid parameters: leftX must be less than rightX and pointCount >= 2");
+        }
+        
+        this.leftX = leftX;
+        this.pointCount = yValues.length;
+        this.step = (rightX - leftX) / (pointCount - 1);
+        this.yValues = new double[pointCount + 10];
+        
+        System.arraycopy(yValues, 0, this.yValues, 0, pointCount);
+    }
+    
+    // Сетка с заданным шагом, а не правой границей (для табулирования и сжатого формата).
+    // Массив yValues забирается без копирования и проверок и после вызова принадлежит функции
+    static UniformTabulatedFunction withStep(double leftX, double step, double[] yValues) {
+        UniformTabulatedFunction function = new UniformTabulatedFunction();
+        function.leftX = leftX;
+        function.step = step;
+        function.pointCount = yValues.length;
+        function.yValues = yValues;
+        return function;
+    }
+    
+    double getStep() {
+        return step;
+    }
+    
+    public boolean isUniform() {
+        return xValues == null;
+    }
+    
+    private double x(int index) {
+        return (xValues == null) ? leftX + index * step : xValues[index];
+    }
+    
+    // Переход к явному хранению абсцисс
+    private void makeNonUniform() {
+        if (xValues != null) {
+            return;
+        }
+        
+        double[] values = new double[yValues.length];
+        for (int i = 0; i < pointCount; i++) {
+            values[i] = leftX + i * step;
+        }
+        xValues = values;
+    }
+    
+    private void checkIndex(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (index < 0 || index >= pointCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+    }
+    
+    // Индекс первой точки с абсциссой больше x
+    private int upperBound(double x) {
+        if (xValues == null) {
+            int i = (int) Math.floor((x - leftX) / step) + 1;
+            i = Math.min(Math.max(i, 0), pointCount);
+            
+            // Поправка на погрешность округления при делении
+            while (i > 0 && x(i - 1) > x) {
+                i--;
+            }
+            while (i < pointCount && x(i) <= x) {
+                i++;
+            }
+            return i;
+        }
+        
+        int low = 0;
+        int high = pointCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xValues[mid] > x) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+    
+    private int findPlaceForX(double x) {
+        int position = upperBound(x);
+        
+        if ((position > 0 && FunctionPoint.equals(x(position - 1), x)) ||
+            (position < pointCount && FunctionPoint.equals(x(position), x))) {
+            return -1;
+        }
+        return position;
+    }
+    
+    @Override
+    public double getLeftDomainBorder() {
+        return x(0);
+    }
+    
+    @Override
+    public double getRightDomainBorder() {
+        return x(pointCount - 1);
+    }
+    
+    @Override
+    public double getFunctionValue(double x) {
+        if (x < x(0) || x > x(pointCount - 1)) {
+            return Double.NaN;
+        }
+        
+        return interpolate(segment(x), x);
+    }
+    
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        double leftBorder = x(0);
+        double rightBorder = x(pointCount - 1);
+        int i = 0;
+        
+        VectorKernels kernels = VectorKernels.get();
+        if (kernels != null) {
+            int[] segments = new int[xs.length];
+            for (int k = 0; k < xs.length; k++) {
+                double x = xs[k];
+                if (!(x < leftBorder || x > rightBorder)) {
+                    i = segmentFrom(i, x);
+                }
+                segments[k] = i;
+            }
+            if (xValues == null) {
+                kernels.interpolateUniform(xs, out, segments, leftX, step, yValues, leftBorder, rightBorder);
+            } else {
+                kernels.interpolate(xs, out, segments, xValues, yValues, leftBorder, rightBorder);
+            }
+            return;
+        }
+        
+        for (int k = 0; k < xs.length; k++) {
+            double x = xs[k];
+            if (x < leftBorder || x > rightBorder) {
+                out[k] = Double.NaN;
+                continue;
+            }
+            
+            i = segmentFrom(i, x);
+            out[k] = interpolate(i, x);
+        }
+    }
+    
+    private int segment(double x) {
+        return Math.min(Math.max(upperBound(x) - 1, 0), pointCount - 2);
+    }
+    
+    // На равномерной сетке отрезок находится сразу, иначе поиск начинается с отрезка i
+    private int segmentFrom(int i, double x) {
+        if (xValues == null || xValues[i] > x) {
+            return segment(x);
+        }
+        
+        for (int steps = 0; i < pointCount - 2 && xValues[i + 1] <= x; steps++) {
+            if (steps == 8) {
+                return segment(x);
+            }
+            i++;
+        }
+        return i;
+    }
+    
+    private double interpolate(int i, double x) {
+        double x1 = x(i);
+        double y1 = yValues[i];
+        double x2 = x(i + 1);
+        double y2 = yValues[i + 1];
+        
+        if (FunctionPoint.equals(x, x1)) {
+            return y1;
+        }
+        if (FunctionPoint.equals(x, x2)) {
+            return y2;
+        }
+        
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+    
+    @Override
+    public int getPointCount() {
+        return pointCount;
+    }
+    
+    @Override
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return x(index);
+    }
+    
+    @Override
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return yValues[index];
+    }
+    
+    @Override
+    public void copyXs(double[] dst, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        FunctionPointIndexOutOfBoundsException.checkRange(from, length, pointCount);
+        if (xValues != null) {
+            System.arraycopy(xValues, from, dst, 0, length);
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            dst[i] = leftX + (from + i) * step;
+        }
+    }
+    
+    @Override
+    public void copyYs(double[] dst, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        FunctionPointIndexOutOfBoundsException.checkRange(from, length, pointCount);
+        System.arraycopy(yValues, from, dst, 0, length);
+    }
+    
+    // Абсциссы равномерной сетки не хранятся, поэтому для них возвращается вычисленная копия
+    @Override
+    public DoubleBuffer xView() {
+        if (xValues == null) {
+            return TabulatedFunction.super.xView();
+        }
+        return DoubleBuffer.wrap(xValues, 0, pointCount).slice().asReadOnlyBuffer();
+    }
+    
+    @Override
+    public DoubleBuffer yView() {
+        return DoubleBuffer.wrap(yValues, 0, pointCount).slice().asReadOnlyBuffer();
+    }
+    
+    @Override
+    public void setPointX(int index, double x) throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkIndex(index);
+        
+        if ((index > 0 && x <= x(index - 1)) ||
+            (index < pointCount - 1 && x >= x(index + 1))) {
+            throw new InappropriateFunctionPointException(x);
+        }
+        
+        if (x != x(index)) {
+            makeNonUniform();
+            xValues[index] = x;
+            if (index == 0 || index == pointCount - 1) {
+                DomainStamp.advance();
+            }
+        }
+    }
+    
+    @Override
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        yValues[index] = y;
+    }
+    
+    @Override
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return new FunctionPoint(x(index), yValues[index]);
+    }
+    
+    @Override
+    public void setPoint(int index, FunctionPoint point) throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        setPointX(index, point.getX());
+        yValues[index] = point.getY();
+    }
+    
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        int position = findPlaceForX(point.getX());
+        
+        if (position == -1) {
+            throw new InappropriateFunctionPointException(point.getX());
+        }
+        
+        makeNonUniform();
+        
+        if (pointCount >= yValues.length) {
+            xValues = Arrays.copyOf(xValues, xValues.length * 2);
+            yValues = Arrays.copyOf(yValues, yValues.length * 2);
+        }
+        
+        System.arraycopy(xValues, position, xValues, position + 1, pointCount - position);
+        System.arraycopy(yValues, position, yValues, position + 1, pointCount - position);
+        
+        xValues[position] = point.getX();
+        yValues[position] = point.getY();
+        pointCount++;
+        if (position == 0 || position == pointCount - 1) {
+            DomainStamp.advance();
+        }
+    }
+    
+    @Override
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        PointBatch batch = PointBatch.of(xs, ys);
+        if (batch.size() == 0) {
+            return;
+        }
+        makeNonUniform();
+        batch.checkAgainst(xValues, pointCount);
+        boolean moved = batch.movesBorders(pointCount, xValues[0], xValues[Math.max(pointCount - 1, 0)]);
+        
+        int newCount = pointCount + batch.size();
+        if (newCount > yValues.length) {
+            int capacity = Math.max(newCount, yValues.length * 2);
+            double[] xTarget = new double[capacity];
+            double[] yTarget = new double[capacity];
+            batch.mergeInto(xValues, yValues, pointCount, xTarget, yTarget);
+            xValues = xTarget;
+            yValues = yTarget;
+        } else {
+            batch.mergeInto(xValues, yValues, pointCount, xValues, yValues);
+        }
+        pointCount = newCount;
+        if (moved) {
+            DomainStamp.advance();
+        }
+    }
+    
+    @Override
+    public void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        checkIndex(index);
+        
+        if (pointCount < 3) {
+            throw new IllegalStateException("Cannot delete point: minimum 3 points required");
+        }
+        
+        // Удаление последней точки не нарушает равномерность сетки
+        if (index < pointCount - 1) {
+            makeNonUniform();
+            System.arraycopy(xValues, index + 1, xValues, index, pointCount - index - 1);
+            System.arraycopy(yValues, index + 1, yValues, index, pointCount - index - 1);
+        }
+        
+        pointCount--;
+        if (index == 0 || index == pointCount) {
+            DomainStamp.advance();
+        }
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        for (int i = 0; i < pointCount; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(new FunctionPoint(x(i), yValues[i]));
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+    
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(pointCount);
+        out.writeBoolean(xValues == null);
+        if (xValues == null) {
+            out.writeDouble(leftX);
+            out.writeDouble(step);
+        }
+        for (int i = 0; i < pointCount; i++) {
+            if (xValues != null) {
+                out.writeDouble(xValues[i]);
+            }
+            out.writeDouble(yValues[i]);
+        }
+    }
+    
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        pointCount = in.readInt();
+        boolean uniform = in.readBoolean();
+        if (uniform) {
+            leftX = in.readDouble();
+            step = in.readDouble();
+            xValues = null;
+        } else {
+            xValues = new double[pointCount + 10];
+        }
+        yValues = new double[pointCount + 10];
+        for (int i = 0; i < pointCount; i++) {
+            if (!uniform) {
+                xValues[i] = in.readDouble();
+            }
+            yValues[i] = in.readDouble();
+        }
+        DomainStamp.advance();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,512 @@
+package functions;
+
+import java.io.*;
+
+// Табулированная функция на развёрнутом списке: каждый узел хранит до BLOCK_CAPACITY точек
+// в двух массивах double. Вставка и удаление сдвигают точки только внутри одного блока;
+// переполненный блок делится пополам, а почти пустой сливается с соседом.
+// Как и в LinkedListTabulatedFunction, последний найденный блок запоминается,
+// поэтому чтение меняет состояние и класс не допускает одновременных вызовов.
+public class UnrolledTabulatedFunction implements TabulatedFunction, DomainStamp.Tracked, Externalizable {
+    private static final int BLOCK_CAPACITY = 64;
+    // При построении блоки заполняются не до конца, чтобы вставки не делили их сразу
+    private static final int INITIAL_FILL = 48;
+    private static final int MIN_FILL = BLOCK_CAPACITY / 4;
+    
+    private static final class Block {
+        final double[] xs = new double[BLOCK_CAPACITY];
+        final double[] ys = new double[BLOCK_CAPACITY];
+        int size;
+        Block prev;
+        Block next;
+    }
+    
+    private Block first;
+    private Block last;
+    private int pointCount;
+    // Последний найденный блок и индекс его первой точки
+    private Block cursor;
+    private int cursorStart;
+    
+    private static final long serialVersionUID = 1L;
+    
+    // Конструктор для Externalizable
+    public UnrolledTabulatedFunction() {
+    }
+    
+    public UnrolledTabulatedFunction(FunctionPoint[] points) throws IllegalArgumentException {
+        if (points.length < 2) {
+            throw new IllegalArgumentException("At least 2 points required");
+        }
+        
+        for (int i = 1; i < points.length; i++) {
+            if (points[i].getX() <= points[i-1].getX()) {
+                throw new IllegalArgumentException("Points must be sorted by X in ascending order");
+            }
+        }
+        
+        double[] xValues = new double[points.length];
+        double[] yValues = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            xValues[i] = points[i].getX();
+            yValues[i] = points[i].getY();
+        }
+        rebuild(xValues, yValues, points.length);
+    }
+    
+    public UnrolledTabulatedFunction(double leftX, double rightX, int pointCount) throws IllegalArgumentException {
+        if (leftX >= rightX || pointCount < 2) {
+            throw new IllegalArgumentException("Invalid parameters: leftX must be less than rightX and pointCount >= 2");
+        }
+        
+        double[] xValues = new double[pointCount];
+        double step = (rightX - leftX) / (pointCount - 1);
+        for (int i = 0; i < pointCount; i++) {
+            xValues[i] = leftX + i * step;
+        }
+        rebuild(xValues, new double[pointCount], pointCount);
+    }
+    
+    public UnrolledTabulatedFunction(double[] xValues, double[] yValues) throws IllegalArgumentException {
+        if (xValues.length < 2 || xValues.length != yValues.length) {
+            throw new IllegalArgumentException("Arrays must have same length and at least 2 elements");
+        }
+        
+        for (int i = 1; i < xValues.length; i++) {
+            if (xValues[i] <= xValues[i - 1]) {
+                throw new IllegalArgumentException("X values must be strictly increasing");
+            }
+        }
+        
+        rebuild(xValues, yValues, xValues.length);
+    }
+    
+    // Замена всех точек на count упорядоченных точек массивов
+    private void rebuild(double[] xValues, double[] yValues, int count) {
+        first = null;
+        last = null;
+        for (int from = 0; from < count; from += INITIAL_FILL) {
+            Block block = new Block();
+            block.size = Math.min(INITIAL_FILL, count - from);
+            System.arraycopy(xValues, from, block.xs, 0, block.size);
+            System.arraycopy(yValues, from, block.ys, 0, block.size);
+            linkAfter(last, block);
+        }
+        pointCount = count;
+        cursor = null;
+    }
+    
+    private void linkAfter(Block block, Block newBlock) {
+        newBlock.prev = block;
+        newBlock.next = (block != null) ? block.next : first;
+        if (newBlock.next != null) {
+            newBlock.next.prev = newBlock;
+        } else {
+            last = newBlock;
+        }
+        if (block != null) {
+            block.next = newBlock;
+        } else {
+            first = newBlock;
+        }
+    }
+    
+    private void unlink(Block block) {
+        if (block.prev != null) {
+            block.prev.next = block.next;
+        } else {
+            first = block.next;
+        }
+        if (block.next != null) {
+            block.next.prev = block.prev;
+        } else {
+            last = block.prev;
+        }
+    }
+    
+    private void checkIndex(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (index < 0 || index >= pointCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+    }
+    
+    // Блок с точкой index; становится курсором. Поиск идёт от курсора или от ближайшего конца
+    private Block locate(int index) {
+        Block block;
+        int start;
+        if (cursor != null && Math.abs(index - cursorStart) < Math.min(index, pointCount - index)) {
+            block = cursor;
+            start = cursorStart;
+        } else if (index < pointCount / 2) {
+            block = first;
+            start = 0;
+        } else {
+            block = last;
+            start = pointCount - last.size;
+        }
+        
+        while (index < start) {
+            block = block.prev;
+            start -= block.size;
+        }
+        while (index >= start + block.size) {
+            start += block.size;
+            block = block.next;
+        }
+        
+        cursor = block;
+        cursorStart = start;
+        return block;
+    }
+    
+    // Последний блок, первая абсцисса которого не больше x (или первый блок); становится курсором
+    private Block locateX(double x) {
+        Block block = (cursor != null) ? cursor : first;
+        int start = (cursor != null) ? cursorStart : 0;
+        
+        while (block.prev != null && block.xs[0] > x) {
+            block = block.prev;
+            start -= block.size;
+        }
+        while (block.next != null && block.next.xs[0] <= x) {
+            start += block.size;
+            block = block.next;
+        }
+        
+        cursor = block;
+        cursorStart = start;
+        return block;
+    }
+    
+    // Число точек блока с абсциссой не больше x (двоичный поиск)
+    private static int upperBound(Block block, double x) {
+        int low = 0;
+        int high = block.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (block.xs[mid] > x) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+    
+    private double xAt(int index) {
+        return locate(index).xs[index - cursorStart];
+    }
+    
+    // Вставка в блок курсора на место offset; полный блок сначала делится пополам
+    private void insertAt(Block block, int offset, double x, double y) {
+        if (block.size == BLOCK_CAPACITY) {
+            Block right = new Block();
+            int half = BLOCK_CAPACITY / 2;
+            right.size = BLOCK_CAPACITY - half;
+            System.arraycopy(block.xs, half, right.xs, 0, right.size);
+            System.arraycopy(block.ys, half, right.ys, 0, right.size);
+            block.size = half;
+            linkAfter(block, right);
+            
+            if (offset > half) {
+                offset -= half;
+                cursorStart += half;
+                cursor = right;
+                block = right;
+            }
+        }
+        
+        System.arraycopy(block.xs, offset, block.xs, offset + 1, block.size - offset);
+        System.arraycopy(block.ys, offset, block.ys, offset + 1, block.size - offset);
+        block.xs[offset] = x;
+        block.ys[offset] = y;
+        block.size++;
+        pointCount++;
+    }
+    
+    private void removeAt(int index) {
+        Block block = locate(index);
+        int offset = index - cursorStart;
+        System.arraycopy(block.xs, offset + 1, block.xs, offset, block.size - offset - 1);
+        System.arraycopy(block.ys, offset + 1, block.ys, offset, block.size - offset - 1);
+        block.size--;
+        pointCount--;
+        
+        if (block.size == 0) {
+            unlink(block);
+            cursor = null;
+        } else if (block.size < MIN_FILL) {
+            Block next = block.next;
+            Block prev = block.prev;
+            if (next != null && block.size + next.size <= BLOCK_CAPACITY) {
+                append(block, next);
+            } else if (prev != null && prev.size + block.size <= BLOCK_CAPACITY) {
+                cursor = prev;
+                cursorStart -= prev.size;
+                append(prev, block);
+            }
+        }
+    }
+    
+    // Перенос точек следующего блока next в конец block
+    private void append(Block block, Block next) {
+        System.arraycopy(next.xs, 0, block.xs, block.size, next.size);
+        System.arraycopy(next.ys, 0, block.ys, block.size, next.size);
+        block.size += next.size;
+        unlink(next);
+    }
+    
+    // Реализация интерфейса Function
+    @Override
+    public double getLeftDomainBorder() {
+        return (pointCount > 0) ? first.xs[0] : Double.NaN;
+    }
+    
+    @Override
+    public double getRightDomainBorder() {
+        return (pointCount > 0) ? last.xs[last.size - 1] : Double.NaN;
+    }
+    
+    @Override
+    public double getFunctionValue(double x) {
+        if (pointCount == 0 || x < first.xs[0] || x > last.xs[last.size - 1]) {
+            return Double.NaN;
+        }
+        
+        Block block = locateX(x);
+        int i = Math.max(upperBound(block, x) - 1, 0);
+        double x1 = block.xs[i];
+        double y1 = block.ys[i];
+        double x2;
+        double y2;
+        if (i + 1 < block.size) {
+            x2 = block.xs[i + 1];
+            y2 = block.ys[i + 1];
+        } else if (block.next != null) {
+            x2 = block.next.xs[0];
+            y2 = block.next.ys[0];
+        } else {
+            return y1;
+        }
+        
+        if (FunctionPoint.equals(x, x1)) {
+            return y1;
+        }
+        if (FunctionPoint.equals(x, x2)) {
+            return y2;
+        }
+        
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+    
+    @Override
+    public int getPointCount() {
+        return pointCount;
+    }
+    
+    @Override
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return locate(index).xs[index - cursorStart];
+    }
+    
+    @Override
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return locate(index).ys[index - cursorStart];
+    }
+    
+    // Точки копируются из массивов блоков, начиная с блока точки from
+    @Override
+    public void copyXs(double[] dst, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        FunctionPointIndexOutOfBoundsException.checkRange(from, length, pointCount);
+        if (length == 0) {
+            return;
+        }
+        Block block = locate(from);
+        int offset = from - cursorStart;
+        int done = 0;
+        while (done < length) {
+            int n = Math.min(block.size - offset, length - done);
+            System.arraycopy(block.xs, offset, dst, done, n);
+            done += n;
+            block = block.next;
+            offset = 0;
+        }
+    }
+    
+    @Override
+    public void copyYs(double[] dst, int from, int length) throws FunctionPointIndexOutOfBoundsException {
+        FunctionPointIndexOutOfBoundsException.checkRange(from, length, pointCount);
+        if (length == 0) {
+            return;
+        }
+        Block block = locate(from);
+        int offset = from - cursorStart;
+        int done = 0;
+        while (done < length) {
+            int n = Math.min(block.size - offset, length - done);
+            System.arraycopy(block.ys, offset, dst, done, n);
+            done += n;
+            block = block.next;
+            offset = 0;
+        }
+    }
+    
+    @Override
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        Block block = locate(index);
+        return new FunctionPoint(block.xs[index - cursorStart], block.ys[index - cursorStart]);
+    }
+    
+    @Override
+    public void setPointX(int index, double x) throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkIndex(index);
+        
+        if ((index > 0 && x <= xAt(index - 1)) ||
+            (index < pointCount - 1 && x >= xAt(index + 1))) {
+            throw new InappropriateFunctionPointException(x);
+        }
+        
+        locate(index).xs[index - cursorStart] = x;
+        if (index == 0 || index == pointCount - 1) {
+            DomainStamp.advance();
+        }
+    }
+    
+    @Override
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        locate(index).ys[index - cursorStart] = y;
+    }
+    
+    @Override
+    public void setPoint(int index, FunctionPoint point) throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkIndex(index);
+        
+        double x = point.getX();
+        if ((index > 0 && x <= xAt(index - 1)) ||
+            (index < pointCount - 1 && x >= xAt(index + 1))) {
+            throw new InappropriateFunctionPointException(x);
+        }
+        
+        Block block = locate(index);
+        block.xs[index - cursorStart] = x;
+        block.ys[index - cursorStart] = point.getY();
+        if (index == 0 || index == pointCount - 1) {
+            DomainStamp.advance();
+        }
+    }
+    
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        double x = point.getX();
+        if (pointCount == 0) {
+            Block block = new Block();
+            block.xs[0] = x;
+            block.ys[0] = point.getY();
+            block.size = 1;
+            linkAfter(null, block);
+            pointCount = 1;
+            DomainStamp.advance();
+            return;
+        }
+        
+        Block block = locateX(x);
+        int offset = upperBound(block, x);
+        // Соседи по абсциссе могут лежать в соседних блоках
+        if ((offset > 0 && FunctionPoint.equals(block.xs[offset - 1], x)) ||
+            (offset < block.size && FunctionPoint.equals(block.xs[offset], x)) ||
+            (offset == block.size && block.next != null && FunctionPoint.equals(block.next.xs[0], x))) {
+            throw new InappropriateFunctionPointException(x);
+        }
+        
+        int index = cursorStart + offset;
+        insertAt(block, offset, x, point.getY());
+        if (index == 0 || index == pointCount - 1) {
+            DomainStamp.advance();
+        }
+    }
+    
+    // Точки набора и функции сливаются в массивы, по которым блоки строятся заново
+    @Override
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        PointBatch batch = PointBatch.of(xs, ys);
+        if (batch.size() == 0) {
+            return;
+        }
+        
+        double[] xValues = new double[pointCount + batch.size()];
+        double[] yValues = new double[pointCount + batch.size()];
+        int k = 0;
+        for (Block block = first; block != null; block = block.next) {
+            System.arraycopy(block.xs, 0, xValues, k, block.size);
+            System.arraycopy(block.ys, 0, yValues, k, block.size);
+            k += block.size;
+        }
+        batch.checkAgainst(xValues, pointCount);
+        boolean moved = batch.movesBorders(pointCount, getLeftDomainBorder(), getRightDomainBorder());
+        
+        batch.mergeInto(xValues, yValues, pointCount, xValues, yValues);
+        rebuild(xValues, yValues, xValues.length);
+        if (moved) {
+            DomainStamp.advance();
+        }
+    }
+    
+    @Override
+    public void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        checkIndex(index);
+        
+        if (pointCount < 3) {
+            throw new IllegalStateException("Cannot delete point: minimum 3 points required");
+        }
+        
+        removeAt(index);
+        if (index == 0 || index == pointCount) {
+            DomainStamp.advance();
+        }
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        boolean firstPoint = true;
+        for (Block block = first; block != null; block = block.next) {
+            for (int i = 0; i < block.size; i++) {
+                if (!firstPoint) sb.append(", ");
+                sb.append(new FunctionPoint(block.xs[i], block.ys[i]));
+                firstPoint = false;
+            }
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+    
+    // Формат совпадает с ArrayTabulatedFunction
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(pointCount);
+        for (Block block = first; block != null; block = block.next) {
+            for (int i = 0; i < block.size; i++) {
+                out.writeDouble(block.xs[i]);
+                out.writeDouble(block.ys[i]);
+            }
+        }
+    }
+    
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        int count = in.readInt();
+        double[] xValues = new double[count];
+        double[] yValues = new double[count];
+        for (int i = 0; i < count; i++) {
+            xValues[i] = in.readDouble();
+            yValues[i] = in.readDouble();
+        }
+        rebuild(xValues, yValues, count);
+        DomainStamp.advance();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package functions;
+
+// SIMD-ядра пакетного вычисления (Function.getFunctionValues).
+// Включаются флагом -Dfunctions.vector=true и требуют модуля jdk.incubator.vector:
+//     javac --add-modules jdk.incubator.vector -cp out -d out vector/functions/SimdKernels.java
+//     java --add-modules jdk.incubator.vector -Dfunctions.vector=true ...
+// (в сборке Maven — профиль vector: mvn -Pvector package).
+// Если флаг не задан или реализация недоступна, get() возвращает null и используется скалярный код.
+//
+// Точность: линейная интерполяция побитово совпадает со скалярной,
+// sin, cos, tan, exp и log отличаются от методов Math не более чем на 1 ulp.
+public abstract class VectorKernels {
+    private static final VectorKernels INSTANCE = load();
+    
+    private static VectorKernels load() {
+        if (!Boolean.getBoolean("functions.vector")) {
+            return null;
+        }
+        try {
+            return (VectorKernels) Class.forName("functions.SimdKernels").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+    
+    public static VectorKernels get() {
+        return INSTANCE;
+    }
+    
+    public abstract void sin(double[] xs, double[] out);
+    
+    public abstract void cos(double[] xs, double[] out);
+    
+    public abstract void tan(double[] xs, double[] out);
+    
+    public abstract void exp(double[] xs, double[] out);
+    
+    // Math.log(x) / logBase, NaN при x <= 0
+    public abstract void log(double[] xs, double[] out, double logBase);
+    
+    // Интерполяция на отрезках segments[k] таблицы (xValues, yValues); вне [left, right] — NaN
+    abstract void interpolate(double[] xs, double[] out, int[] segments,
+                              double[] xValues, double[] yValues, double left, double right);
+    
+    // То же для равномерной сетки с абсциссами leftX + i * step
+    abstract void interpolateUniform(double[] xs, double[] out, int[] segments,
+                                     double leftX, double step, double[] yValues, double left, double right);
+}
\ No newline at end of file
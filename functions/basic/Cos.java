@@ -1,8 +1,23 @@
 package functions.basic;
 
+import functions.VectorKernels;
+
 public class Cos extends TrigonometricFunction {
     @Override
     public double getFunctionValue(double x) {
         return Math.cos(x);
     }
+    
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        VectorKernels kernels = VectorKernels.get();
+        if (kernels != null) {
+            kernels.cos(xs, out);
+            return;
+        }
+        
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = Math.cos(xs[i]);
+        }
+    }
 }
\ No newline at end of file
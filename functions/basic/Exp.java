@@ -1,6 +1,7 @@
 package functions.basic;
 
 import functions.Function;
+import functions.VectorKernels;
 import functions.FunctionPoint;
 
 public class Exp implements Function {
@@ -18,4 +19,17 @@ public class Exp implements Function {
     public double getFunctionValue(double x) {
         return Math.exp(x);
     }
+    
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        VectorKernels kernels = VectorKernels.get();
+        if (kernels != null) {
+            kernels.exp(xs, out);
+            return;
+        }
+        
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = Math.exp(xs[i]);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package functions.basic;
+
+import functions.Function;
+
+// Тождественная функция f(x) = x
+public class Identity implements Function {
+    @Override
+    public double getLeftDomainBorder() {
+        return Double.NEGATIVE_INFINITY;
+    }
+    
+    @Override
+    public double getRightDomainBorder() {
+        return Double.POSITIVE_INFINITY;
+    }
+    
+    @Override
+    public double getFunctionValue(double x) {
+        return x;
+    }
+    
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out != xs) {
+            System.arraycopy(xs, 0, out, 0, xs.length);
+        }
+    }
+}
\ No newline at end of file
@@ -2,6 +2,7 @@ package functions.basic;
 
 import functions.Function;
 import functions.FunctionPoint;
+import functions.VectorKernels;
 
 public class Log implements Function {
     private double base;
@@ -13,6 +14,10 @@ public class Log implements Function {
         this.base = base;
     }
     
+    public double getBase() {
+        return base;
+    }
+    
     @Override
     public double getLeftDomainBorder() {
         return 0;
@@ -30,4 +35,19 @@ public class Log implements Function {
         }
         return Math.log(x) / Math.log(base);
     }
+    
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        double logBase = Math.log(base);
+        VectorKernels kernels = VectorKernels.get();
+        if (kernels != null) {
+            kernels.log(xs, out, logBase);
+            return;
+        }
+        
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i];
+            out[i] = (x <= 0) ? Double.NaN : Math.log(x) / logBase;
+        }
+    }
 }
@@ -2,30 +2,54 @@ package functions.meta;
 
 import functions.Function;
 
-public class Composition implements Function {
-    private Function f1, f2;
+public class Composition extends MetaFunction {
+    private final Function f1, f2;
     
     public Composition(Function f1, Function f2) {
+        super(f1, f2);
         this.f1 = f1;
         this.f2 = f2;
     }
     
+    public Function getFirstFunction() {
+        return f1;
+    }
+    
+    public Function getSecondFunction() {
+        return f2;
+    }
+    
     @Override
-    public double getLeftDomainBorder() {
+    double computeLeftDomainBorder() {
         return f1.getLeftDomainBorder();
     }
     
     @Override
-    public double getRightDomainBorder() {
+    double computeRightDomainBorder() {
         return f1.getRightDomainBorder();
     }
     
     @Override
     public double getFunctionValue(double x) {
-        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+        if (!inDomain(x)) {
             return Double.NaN;
         }
         double intermediate = f1.getFunctionValue(x);
         return f2.getFunctionValue(intermediate);
     }
+    
+    // Результаты f1 передаются в f2 целым массивом
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        double[] values = new double[xs.length];
+        f1.getFunctionValues(xs, values);
+        f2.getFunctionValues(values, values);
+        
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i];
+            out[i] = (x < left || x > right) ? Double.NaN : values[i];
+        }
+    }
 }
\ No newline at end of file
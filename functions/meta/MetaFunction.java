@@ -0,0 +1,81 @@
+package functions.meta;
+
+import functions.DomainStamp;
+import functions.Function;
+
+// Общая часть мета-функций: границы области определения вычисляются по подфункциям
+// один раз и сохраняются. Если все подфункции неизменны (basic или такие же мета-функции),
+// границы не пересчитываются никогда; если среди них есть табулированные функции пакета functions,
+// границы пересчитываются после изменения DomainStamp. Для подфункций других классов
+// границы вычисляются при каждом обращении, как раньше.
+abstract class MetaFunction implements Function {
+    private static final int FIXED = 0;
+    private static final int TRACKED = 1;
+    private static final int UNTRACKED = 2;
+    
+    // Границы вместе со значением счётчика, при котором они вычислены
+    private static final class Domain {
+        final double left;
+        final double right;
+        final long stamp;
+        
+        Domain(double left, double right, long stamp) {
+            this.left = left;
+            this.right = right;
+            this.stamp = stamp;
+        }
+    }
+    
+    private final int kind;
+    private volatile Domain domain;
+    
+    MetaFunction(Function... functions) {
+        int kind = FIXED;
+        for (Function f : functions) {
+            kind = Math.max(kind, kindOf(f));
+        }
+        this.kind = kind;
+    }
+    
+    private static int kindOf(Function f) {
+        if (f instanceof MetaFunction) {
+            return ((MetaFunction) f).kind;
+        }
+        if (DomainStamp.isFixed(f)) {
+            return FIXED;
+        }
+        return DomainStamp.isTracked(f) ? TRACKED : UNTRACKED;
+    }
+    
+    abstract double computeLeftDomainBorder();
+    
+    abstract double computeRightDomainBorder();
+    
+    private Domain domain() {
+        Domain d = domain;
+        if (d == null || (kind == TRACKED && d.stamp != DomainStamp.current())) {
+            // Счётчик читается до вычисления: изменение во время вычисления вызовет повторный пересчёт
+            long stamp = DomainStamp.current();
+            d = new Domain(computeLeftDomainBorder(), computeRightDomainBorder(), stamp);
+            if (kind != UNTRACKED) {
+                domain = d;
+            }
+        }
+        return d;
+    }
+    
+    @Override
+    public double getLeftDomainBorder() {
+        return domain().left;
+    }
+    
+    @Override
+    public double getRightDomainBorder() {
+        return domain().right;
+    }
+    
+    final boolean inDomain(double x) {
+        Domain d = domain();
+        return !(x < d.left || x > d.right);
+    }
+}
\ No newline at end of file
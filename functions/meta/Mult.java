@@ -2,29 +2,54 @@ package functions.meta;
 
 import functions.Function;
 
-public class Mult implements Function {
-    private Function f1, f2;
+public class Mult extends MetaFunction {
+    private final Function f1, f2;
     
     public Mult(Function f1, Function f2) {
+        super(f1, f2);
         this.f1 = f1;
         this.f2 = f2;
     }
     
+    public Function getFirstFunction() {
+        return f1;
+    }
+    
+    public Function getSecondFunction() {
+        return f2;
+    }
+    
     @Override
-    public double getLeftDomainBorder() {
+    double computeLeftDomainBorder() {
         return Math.max(f1.getLeftDomainBorder(), f2.getLeftDomainBorder());
     }
     
     @Override
-    public double getRightDomainBorder() {
+    double computeRightDomainBorder() {
         return Math.min(f1.getRightDomainBorder(), f2.getRightDomainBorder());
     }
     
     @Override
     public double getFunctionValue(double x) {
-        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+        if (!inDomain(x)) {
             return Double.NaN;
         }
         return f1.getFunctionValue(x) * f2.getFunctionValue(x);
     }
+    
+    // Подфункции вычисляются сразу для всего массива аргументов
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        double[] values1 = new double[xs.length];
+        double[] values2 = new double[xs.length];
+        f1.getFunctionValues(xs, values1);
+        f2.getFunctionValues(xs, values2);
+        
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i];
+            out[i] = (x < left || x > right) ? Double.NaN : values1[i] * values2[i];
+        }
+    }
 }
\ No newline at end of file
@@ -2,30 +2,52 @@ package functions.meta;
 
 import functions.Function;
 
-public class Power implements Function {
-    private Function f;
-    private double power;
+public class Power extends MetaFunction {
+    private final Function f;
+    private final double power;
     
     public Power(Function f, double power) {
+        super(f);
         this.f = f;
         this.power = power;
     }
     
+    public Function getFunction() {
+        return f;
+    }
+    
+    public double getPower() {
+        return power;
+    }
+    
     @Override
-    public double getLeftDomainBorder() {
+    double computeLeftDomainBorder() {
         return f.getLeftDomainBorder();
     }
     
     @Override
-    public double getRightDomainBorder() {
+    double computeRightDomainBorder() {
         return f.getRightDomainBorder();
     }
     
     @Override
     public double getFunctionValue(double x) {
-        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+        if (!inDomain(x)) {
             return Double.NaN;
         }
         return Math.pow(f.getFunctionValue(x), power);
     }
+    
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        double[] values = new double[xs.length];
+        f.getFunctionValues(xs, values);
+        
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i];
+            out[i] = (x < left || x > right) ? Double.NaN : Math.pow(values[i], power);
+        }
+    }
 }
\ No newline at end of file
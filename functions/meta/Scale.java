@@ -2,18 +2,31 @@ package functions.meta;
 
 import functions.Function;
 
-public class Scale implements Function {
-    private Function f;
-    private double scaleX, scaleY;
+public class Scale extends MetaFunction {
+    private final Function f;
+    private final double scaleX, scaleY;
     
     public Scale(Function f, double scaleX, double scaleY) {
+        super(f);
         this.f = f;
         this.scaleX = scaleX;
         this.scaleY = scaleY;
     }
     
+    public Function getFunction() {
+        return f;
+    }
+    
+    public double getScaleX() {
+        return scaleX;
+    }
+    
+    public double getScaleY() {
+        return scaleY;
+    }
+    
     @Override
-    public double getLeftDomainBorder() {
+    double computeLeftDomainBorder() {
         if (scaleX >= 0) {
             return f.getLeftDomainBorder() * scaleX;
         } else {
@@ -22,7 +35,7 @@ public class Scale implements Function {
     }
     
     @Override
-    public double getRightDomainBorder() {
+    double computeRightDomainBorder() {
         if (scaleX >= 0) {
             return f.getRightDomainBorder() * scaleX;
         } else {
@@ -38,4 +51,20 @@ public class Scale implements Function {
         }
         return f.getFunctionValue(originalX) * scaleY;
     }
+    
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        double left = f.getLeftDomainBorder();
+        double right = f.getRightDomainBorder();
+        double[] values = new double[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            values[i] = xs[i] / scaleX;
+        }
+        f.getFunctionValues(values, values);
+        
+        for (int i = 0; i < xs.length; i++) {
+            double originalX = xs[i] / scaleX;
+            out[i] = (originalX < left || originalX > right) ? Double.NaN : values[i] * scaleY;
+        }
+    }
 }
\ No newline at end of file
@@ -2,23 +2,36 @@ package functions.meta;
 
 import functions.Function;
 
-public class Shift implements Function {
-    private Function f;
-    private double shiftX, shiftY;
+public class Shift extends MetaFunction {
+    private final Function f;
+    private final double shiftX, shiftY;
     
     public Shift(Function f, double shiftX, double shiftY) {
+        super(f);
         this.f = f;
         this.shiftX = shiftX;
         this.shiftY = shiftY;
     }
     
+    public Function getFunction() {
+        return f;
+    }
+    
+    public double getShiftX() {
+        return shiftX;
+    }
+    
+    public double getShiftY() {
+        return shiftY;
+    }
+    
     @Override
-    public double getLeftDomainBorder() {
+    double computeLeftDomainBorder() {
         return f.getLeftDomainBorder() + shiftX;
     }
     
     @Override
-    public double getRightDomainBorder() {
+    double computeRightDomainBorder() {
         return f.getRightDomainBorder() + shiftX;
     }
     
@@ -30,4 +43,20 @@ public class Shift implements Function {
         }
         return f.getFunctionValue(originalX) + shiftY;
     }
+    
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        double left = f.getLeftDomainBorder();
+        double right = f.getRightDomainBorder();
+        double[] values = new double[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            values[i] = xs[i] - shiftX;
+        }
+        f.getFunctionValues(values, values);
+        
+        for (int i = 0; i < xs.length; i++) {
+            double originalX = xs[i] - shiftX;
+            out[i] = (originalX < left || originalX > right) ? Double.NaN : values[i] + shiftY;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package functions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import functions.basic.Sin;
+import functions.meta.Scale;
+import org.junit.jupiter.api.Test;
+
+class FunctionsTest {
+    private static ArrayTabulatedFunction table() {
+        return new ArrayTabulatedFunction(new double[] {0, 1, 2}, new double[] {0, 1, 4});
+    }
+    
+    // Функция с изменяемой областью определения, о которой DomainStamp не знает
+    private static final class Window implements Function {
+        double right = 1;
+        
+        @Override
+        public double getLeftDomainBorder() {
+            return 0;
+        }
+        
+        @Override
+        public double getRightDomainBorder() {
+            return right;
+        }
+        
+        @Override
+        public double getFunctionValue(double x) {
+            return x;
+        }
+    }
+    
+    private static void assertSameFunction(Function expected, Function actual) {
+        assertEquals(expected.getLeftDomainBorder(), actual.getLeftDomainBorder());
+        assertEquals(expected.getRightDomainBorder(), actual.getRightDomainBorder());
+        for (double x = -1; x <= 4; x += 0.25) {
+            assertEquals(expected.getFunctionValue(x), actual.getFunctionValue(x), "x = " + x);
+        }
+    }
+    
+    @Test
+    void compiledTreeFollowsTabulatedLeaf() throws InappropriateFunctionPointException {
+        ArrayTabulatedFunction t = table();
+        Function tree = Functions.shift(t, 0, 1);
+        Function compiled = Functions.compile(tree);
+        assertSameFunction(tree, compiled);
+        
+        t.addPoint(new FunctionPoint(3, 9));
+        assertEquals(7.5, compiled.getFunctionValue(2.5));
+        assertSameFunction(tree, compiled);
+        
+        t.deletePoint(0);
+        assertSameFunction(tree, compiled);
+    }
+    
+    @Test
+    void metaTreeOverCompiledFollowsTabulatedLeaf() throws InappropriateFunctionPointException {
+        ArrayTabulatedFunction t = table();
+        Function outer = Functions.sum(Functions.compile(Functions.scale(t, 1, 2)), new Sin());
+        Function tree = Functions.sum(Functions.scale(t, 1, 2), new Sin());
+        assertSameFunction(tree, outer);
+        
+        t.addPoint(new FunctionPoint(3, 9));
+        assertEquals(3.0, outer.getRightDomainBorder());
+        assertSameFunction(tree, outer);
+    }
+    
+    // Корень, полученный переписыванием, переписывается дальше: 3sin + 3sin -> 2(3sin) -> 6sin
+    @Test
+    void simplifyRewritesNewRoot() {
+        Function f = Functions.scale(new Sin(), 1, 3);
+        Function simplified = Functions.simplify(Functions.sum(f, Functions.shift(f, 0, 0)));
+        assertSame(Scale.class, simplified.getClass());
+        assertSame(Sin.class, ((Scale) simplified).getFunction().getClass());
+        assertEquals(6, ((Scale) simplified).getScaleY());
+        assertEquals(1, ((Scale) simplified).getScaleX());
+    }
+    
+    // Каждая реализация пакета отмечена для DomainStamp, и мета-функции видят её новые границы
+    @Test
+    void metaFunctionFollowsEveryImplementation() throws InappropriateFunctionPointException {
+        double[] xs = {0, 1, 2};
+        double[] ys = {0, 1, 4};
+        TabulatedFunction[] functions = {
+            new ArrayTabulatedFunction(xs, ys),
+            new LinkedListTabulatedFunction(xs, ys),
+            new UniformTabulatedFunction(0, 2, ys),
+            new OffHeapTabulatedFunction(xs, ys),
+            new ConcurrentTabulatedFunction(new ArrayTabulatedFunction(xs, ys)),
+            new UnrolledTabulatedFunction(xs, ys),
+            new SkipListTabulatedFunction(xs, ys)
+        };
+        for (TabulatedFunction t : functions) {
+            String name = t.getClass().getSimpleName();
+            assertTrue(DomainStamp.isTracked(t), name);
+            assertFalse(DomainStamp.isFixed(t), name);
+            
+            Function shifted = Functions.shift(t, 0, 1);
+            assertEquals(2.0, shifted.getRightDomainBorder(), name);
+            t.addPoint(new FunctionPoint(3, 9));
+            assertEquals(3.0, shifted.getRightDomainBorder(), name);
+            assertEquals(7.5, shifted.getFunctionValue(2.5), name);
+        }
+        ((OffHeapTabulatedFunction) functions[3]).close();
+    }
+    
+    @Test
+    void compiledTreeFollowsUntrackedLeaf() {
+        Window w = new Window();
+        Function tree = Functions.scale(Functions.shift(w, 0, 1), 1, 3);
+        Function compiled = Functions.compile(tree);
+        assertSameFunction(tree, compiled);
+        
+        w.right = 3;
+        assertSameFunction(tree, compiled);
+    }
+}
\ No newline at end of file
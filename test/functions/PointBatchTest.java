@@ -0,0 +1,166 @@
+package functions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// addPoints всех реализаций на одних и тех же случайных наборах
+class PointBatchTest {
+    private static final int SIZE = 21;
+    private static final int ROUNDS = 3000;
+    
+    private static double[] xValues() {
+        double[] xs = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            xs[i] = i;
+        }
+        return xs;
+    }
+    
+    private static double[] yValues() {
+        double[] ys = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            ys[i] = i * i;
+        }
+        return ys;
+    }
+    
+    // Обёртка, у которой addPoints — реализация по умолчанию из TabulatedFunction
+    private static TabulatedFunction withDefaultAddPoints(TabulatedFunction target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (TabulatedFunction) Proxy.newProxyInstance(TabulatedFunction.class.getClassLoader(),
+                                                          new Class<?>[] {TabulatedFunction.class}, handler);
+    }
+    
+    private static List<TabulatedFunction> implementations() {
+        List<TabulatedFunction> functions = new ArrayList<>();
+        functions.add(withDefaultAddPoints(new ArrayTabulatedFunction(xValues(), yValues())));
+        functions.add(new ArrayTabulatedFunction(xValues(), yValues()));
+        functions.add(new LinkedListTabulatedFunction(xValues(), yValues()));
+        functions.add(new OffHeapTabulatedFunction(xValues(), yValues()));
+        functions.add(new SkipListTabulatedFunction(xValues(), yValues()));
+        functions.add(new UnrolledTabulatedFunction(xValues(), yValues()));
+        functions.add(new UniformTabulatedFunction(0, SIZE - 1, yValues()));
+        functions.add(new ConcurrentTabulatedFunction(new ArrayTabulatedFunction(xValues(), yValues())));
+        return functions;
+    }
+    
+    // Абсциссы на сетке с шагом 0.5, в том числе совпадающие с точками функции и друг с другом,
+    // их сдвиги меньше EPS и изредка NaN
+    private static double randomX(Random random) {
+        double x = random.nextInt(70) * 0.5 - 5;
+        switch (random.nextInt(20)) {
+            case 0:
+                return x + FunctionPoint.EPS / 2;
+            case 1:
+                return x - FunctionPoint.EPS / 3;
+            case 2:
+                return (random.nextInt(10) == 0) ? Double.NaN : x;
+            default:
+                return x;
+        }
+    }
+    
+    // Набор принимается, если в нём нет NaN и никакие две абсциссы набора и функции не совпадают с точностью EPS
+    private static boolean acceptable(double[] xs) {
+        double[] all = Arrays.copyOf(xValues(), SIZE + xs.length);
+        System.arraycopy(xs, 0, all, SIZE, xs.length);
+        for (int i = 0; i < all.length; i++) {
+            if (Double.isNaN(all[i])) {
+                return false;
+            }
+            for (int j = Math.max(i + 1, SIZE); j < all.length; j++) {
+                if (FunctionPoint.equals(all[i], all[j])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    
+    private static void close(List<TabulatedFunction> functions) {
+        for (TabulatedFunction function : functions) {
+            if (function instanceof OffHeapTabulatedFunction) {
+                ((OffHeapTabulatedFunction) function).close();
+            }
+        }
+    }
+    
+    @Test
+    void allImplementationsAgree() {
+        Random random = new Random(1);
+        int accepted = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            int size = random.nextInt(8);
+            double[] xs = new double[size];
+            double[] ys = new double[size];
+            FunctionPoint[] points = new FunctionPoint[size];
+            for (int i = 0; i < size; i++) {
+                xs[i] = randomX(random);
+                ys[i] = random.nextDouble();
+                points[i] = new FunctionPoint(xs[i], ys[i]);
+            }
+            boolean asPoints = random.nextBoolean();
+            
+            List<TabulatedFunction> functions = implementations();
+            try {
+                Boolean expected = null;
+                TabulatedFunction reference = null;
+                for (TabulatedFunction function : functions) {
+                    boolean added;
+                    try {
+                        if (asPoints) {
+                            function.addPoints(points);
+                        } else {
+                            function.addPoints(xs, ys);
+                        }
+                        added = true;
+                    } catch (InappropriateFunctionPointException e) {
+                        added = false;
+                    }
+                    
+                    if (reference == null) {
+                        reference = function;
+                        expected = added;
+                        accepted += added ? 1 : 0;
+                        assertEquals(acceptable(xs), added, "round " + round);
+                        assertEquals(SIZE + (added ? size : 0), function.getPointCount());
+                        for (int i = 1; i < function.getPointCount(); i++) {
+                            assertTrue(function.getPointX(i - 1) < function.getPointX(i));
+                        }
+                        continue;
+                    }
+                    String message = function.getClass().getSimpleName() + ", round " + round;
+                    assertEquals(expected, added, message);
+                    assertEquals(reference.getPointCount(), function.getPointCount(), message);
+                    for (int i = 0; i < reference.getPointCount(); i++) {
+                        assertEquals(reference.getPointX(i), function.getPointX(i), message);
+                        assertEquals(reference.getPointY(i), function.getPointY(i), message);
+                    }
+                    assertEquals(reference.getLeftDomainBorder(), function.getLeftDomainBorder(), message);
+                    assertEquals(reference.getRightDomainBorder(), function.getRightDomainBorder(), message);
+                }
+            } finally {
+                close(functions);
+            }
+        }
+        // Наборы должны быть и принятые, и отвергнутые
+        assertTrue(accepted > ROUNDS / 10 && accepted < ROUNDS * 9 / 10, "accepted " + accepted);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,155 @@
+package functions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+class SkipListTabulatedFunctionTest {
+    private static final int THREADS = 6;
+    private static final int OPERATIONS = 20000;
+    
+    // Число точек по toString: перебор самого списка, а не счётчика pointCount
+    private static int countPoints(TabulatedFunction function) {
+        String text = function.toString();
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '(') {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    // Одновременные addPoint, addPoints и deletePoint на узкой сетке, где вставки часто конфликтуют
+    @RepeatedTest(10)
+    void pointCountMatchesPointsAfterConcurrentChanges() throws InterruptedException {
+        SkipListTabulatedFunction function = new SkipListTabulatedFunction(0, 64, 65);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Throwable> failures = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        
+        for (int t = 0; t < THREADS; t++) {
+            long seed = t;
+            Thread thread = new Thread(() -> {
+                Random random = new Random(seed);
+                try {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        try {
+                            switch (random.nextInt(3)) {
+                                case 0:
+                                    function.addPoint(new FunctionPoint(random.nextInt(129) * 0.5, i));
+                                    break;
+                                case 1:
+                                    double x = random.nextInt(128) * 0.5;
+                                    function.addPoints(new double[] {x, x + 0.5, x + 0.25}, new double[] {1, 2, 3});
+                                    break;
+                                default:
+                                    function.deletePoint(random.nextInt(Math.max(function.getPointCount(), 1)));
+                                    break;
+                            }
+                        } catch (InappropriateFunctionPointException | FunctionPointIndexOutOfBoundsException
+                                 | IllegalStateException e) {
+                            // Ожидаемые отказы при конфликтах
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(List.of(), failures);
+        int count = function.getPointCount();
+        assertEquals(countPoints(function), count);
+        assertTrue(count >= 2);
+        for (int i = 1; i < count; i++) {
+            assertTrue(function.getPointX(i - 1) < function.getPointX(i));
+        }
+    }
+    
+    // Пары из copyPoints взяты из одних записей, даже если точки одновременно добавляются и удаляются
+    @Test
+    void copiedPointsStayPairedDuringChanges() throws InterruptedException {
+        int size = 4096;
+        double[] xValues = new double[size];
+        double[] yValues = new double[size];
+        for (int i = 0; i < size; i++) {
+            xValues[i] = i;
+            yValues[i] = 2 * i;
+        }
+        SkipListTabulatedFunction function = new SkipListTabulatedFunction(xValues, yValues);
+        
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            Random random = new Random(1);
+            while (!done.get()) {
+                try {
+                    if (random.nextBoolean()) {
+                        double x = random.nextInt(2 * size) * 0.5;
+                        function.addPoint(new FunctionPoint(x, 2 * x));
+                    } else {
+                        function.deletePoint(random.nextInt(function.getPointCount()));
+                    }
+                } catch (InappropriateFunctionPointException | FunctionPointIndexOutOfBoundsException
+                         | IllegalStateException e) {
+                    // Ожидаемые отказы при конфликтах
+                }
+            }
+        });
+        writer.start();
+        
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        try {
+            for (int round = 0; round < 2000; round++) {
+                int length = Math.min(size, function.getPointCount()) / 2;
+                try {
+                    function.copyPoints(xs, ys, 0, length);
+                } catch (FunctionPointIndexOutOfBoundsException e) {
+                    continue;
+                }
+                for (int j = 0; j < length; j++) {
+                    assertEquals(2 * xs[j], ys[j], "x = " + xs[j]);
+                }
+            }
+        } finally {
+            done.set(true);
+            writer.join();
+        }
+    }
+    
+    // -0.0 и 0.0 — одна абсцисса, как в остальных реализациях
+    @Test
+    void negativeZeroIsTheSameAbscissaAsZero() throws InappropriateFunctionPointException {
+        SkipListTabulatedFunction function = new SkipListTabulatedFunction(new double[] {0, 1, 2}, new double[] {5, 6, 7});
+        ArrayTabulatedFunction array = new ArrayTabulatedFunction(new double[] {0, 1, 2}, new double[] {5, 6, 7});
+        
+        assertEquals(array.getFunctionValue(-0.0), function.getFunctionValue(-0.0));
+        assertEquals(5, function.getFunctionValue(-0.0));
+        assertEquals(5, Functions.scale(function, -1, 1).getFunctionValue(-0.0));
+        assertEquals(5, Functions.scale(function, -1, 1).getFunctionValue(0));
+        assertThrows(InappropriateFunctionPointException.class, () -> function.addPoint(new FunctionPoint(-0.0, 1)));
+        
+        function.setPointX(1, -0.0 + 0.5);
+        function.deletePoint(0);
+        function.addPoint(new FunctionPoint(-0.0, 4));
+        assertEquals(3, function.getPointCount());
+        assertEquals(0, Double.compare(0.0, function.getPointX(0)));
+        assertEquals(4, function.getFunctionValue(0.0));
+    }
+}
\ No newline at end of file
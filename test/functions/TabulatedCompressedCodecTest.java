@@ -0,0 +1,138 @@
+package functions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TabulatedCompressedCodecTest {
+    // Размеры вокруг границы блока в 4096 точек
+    private static final int[] SIZES = {2, 3, 4095, 4096, 4097, 8192, 8193, 10000};
+    
+    private static final double[] SPECIAL = {
+        Double.NaN, Double.longBitsToDouble(0x7FF0000000000001L), Double.longBitsToDouble(0xFFF8000000000123L),
+        0.0, -0.0, Double.MIN_VALUE, -Double.MIN_VALUE, Double.MIN_NORMAL, Math.nextDown(Double.MIN_NORMAL),
+        Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 1.0, 1.0, 1.0
+    };
+    
+    private static byte[] write(TabulatedFunction... functions) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (TabulatedFunction function : functions) {
+            TabulatedFunctions.outputCompressedTabulatedFunction(function, out);
+        }
+        return out.toByteArray();
+    }
+    
+    private static void assertSameBits(TabulatedFunction expected, TabulatedFunction actual) {
+        assertEquals(expected.getPointCount(), actual.getPointCount());
+        for (int i = 0; i < expected.getPointCount(); i++) {
+            assertEquals(Double.doubleToRawLongBits(expected.getPointX(i)), Double.doubleToRawLongBits(actual.getPointX(i)),
+                         "x at " + i);
+            assertEquals(Double.doubleToRawLongBits(expected.getPointY(i)), Double.doubleToRawLongBits(actual.getPointY(i)),
+                         "y at " + i);
+        }
+    }
+    
+    private static void assertRoundTrip(TabulatedFunction function) throws IOException {
+        InputStream in = new ByteArrayInputStream(write(function));
+        assertSameBits(function, TabulatedFunctions.inputCompressedTabulatedFunction(in));
+        assertEquals(-1, in.read());
+    }
+    
+    // Случайные биты ординат вперемешку с NaN, нулями разных знаков, субнормальными и повторами
+    private static double[] randomYs(Random random, int size) {
+        double[] ys = new double[size];
+        for (int i = 0; i < size; i++) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    ys[i] = Double.longBitsToDouble(random.nextLong());
+                    break;
+                case 1:
+                    ys[i] = SPECIAL[random.nextInt(SPECIAL.length)];
+                    break;
+                case 2:
+                    ys[i] = Double.longBitsToDouble(random.nextLong() & 0x800FFFFFFFFFFFFFL);
+                    break;
+                default:
+                    ys[i] = (i > 0) ? ys[i - 1] : 0.5;
+                    break;
+            }
+        }
+        return ys;
+    }
+    
+    @Test
+    void uniformGridRoundTrip() throws IOException {
+        Random random = new Random(1);
+        for (int size : SIZES) {
+            assertRoundTrip(new UniformTabulatedFunction(-3.5, 7.25, randomYs(random, size)));
+            
+            double[] xs = new double[size];
+            for (int i = 0; i < size; i++) {
+                xs[i] = 0.125 * i - 10;
+            }
+            assertRoundTrip(new ArrayTabulatedFunction(xs, randomYs(random, size)));
+        }
+    }
+    
+    @Test
+    void nonUniformGridRoundTrip() throws IOException {
+        Random random = new Random(2);
+        for (int size : SIZES) {
+            double[] xs = new double[size];
+            xs[0] = -1e3;
+            for (int i = 1; i < size; i++) {
+                xs[i] = xs[i - 1] + Math.pow(10, random.nextInt(9) - 6) * (0.5 + random.nextDouble());
+            }
+            assertRoundTrip(new ArrayTabulatedFunction(xs, randomYs(random, size)));
+        }
+    }
+    
+    // Абсциссы из случайных битов: разные знаки и порядки, субнормальные числа возле нуля
+    @Test
+    void randomBitAbscissasRoundTrip() throws IOException {
+        Random random = new Random(3);
+        for (int size : SIZES) {
+            double[] xs = new double[size];
+            int count = 0;
+            while (count < size) {
+                double x = Double.longBitsToDouble(random.nextLong());
+                if (random.nextInt(8) == 0) {
+                    x = Double.longBitsToDouble(random.nextLong() & 0x800FFFFFFFFFFFFFL);
+                }
+                if (!Double.isNaN(x) && !Double.isInfinite(x)) {
+                    xs[count++] = x;
+                }
+            }
+            Arrays.sort(xs);
+            int distinct = 1;
+            for (int i = 1; i < size; i++) {
+                if (xs[i] != xs[distinct - 1]) {
+                    xs[distinct++] = xs[i];
+                }
+            }
+            xs = Arrays.copyOf(xs, distinct);
+            assertRoundTrip(new ArrayTabulatedFunction(xs, randomYs(random, distinct)));
+        }
+    }
+    
+    // Каждая функция читается ровно до своего конца
+    @Test
+    void functionsInARow() throws IOException {
+        Random random = new Random(4);
+        TabulatedFunction first = new UniformTabulatedFunction(0, 1, randomYs(random, 4097));
+        double[] xs = {-2, -1.5, 0, 3, 1e9};
+        TabulatedFunction second = new ArrayTabulatedFunction(xs, randomYs(random, xs.length));
+        
+        InputStream in = new ByteArrayInputStream(write(first, second, first));
+        assertSameBits(first, TabulatedFunctions.inputCompressedTabulatedFunction(in));
+        assertSameBits(second, TabulatedFunctions.inputCompressedTabulatedFunction(in));
+        assertSameBits(first, TabulatedFunctions.inputCompressedTabulatedFunction(in));
+        assertEquals(-1, in.read());
+    }
+}
\ No newline at end of file
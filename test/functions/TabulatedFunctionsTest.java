@@ -0,0 +1,127 @@
+package functions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import functions.basic.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import org.junit.jupiter.api.Test;
+
+class TabulatedFunctionsTest {
+    // Поток без mark/reset
+    private static final class PlainReader extends Reader {
+        private final Reader in;
+        
+        PlainReader(Reader in) {
+            this.in = in;
+        }
+        
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            return in.read(cbuf, off, len);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+    
+    private static TabulatedFunction function(int pointCount, double shift) {
+        double[] xValues = new double[pointCount];
+        double[] yValues = new double[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            xValues[i] = i / 7.0 + shift;
+            yValues[i] = Math.sin(xValues[i]) * 1e5;
+        }
+        return new ArrayTabulatedFunction(xValues, yValues);
+    }
+    
+    private static void assertSamePoints(TabulatedFunction expected, TabulatedFunction actual) {
+        assertEquals(expected.getPointCount(), actual.getPointCount());
+        for (int i = 0; i < expected.getPointCount(); i++) {
+            assertEquals(Double.doubleToRawLongBits(expected.getPointX(i)), Double.doubleToRawLongBits(actual.getPointX(i)));
+            assertEquals(Double.doubleToRawLongBits(expected.getPointY(i)), Double.doubleToRawLongBits(actual.getPointY(i)));
+        }
+    }
+    
+    // Отклонение результата tabulateAdaptive от функции на густой сетке
+    private static double adaptiveError(Function function, double leftX, double rightX, double maxError) {
+        TabulatedFunction result = TabulatedFunctions.tabulateAdaptive(function, leftX, rightX, maxError);
+        for (int i = 0; i < result.getPointCount(); i++) {
+            assertEquals(function.getFunctionValue(result.getPointX(i)), result.getPointY(i));
+        }
+        
+        int steps = 200000;
+        double worst = 0;
+        for (int i = 0; i <= steps; i++) {
+            double x = leftX + (rightX - leftX) * i / steps;
+            worst = Math.max(worst, Math.abs(result.getFunctionValue(x) - function.getFunctionValue(x)));
+        }
+        return worst;
+    }
+    
+    // maxError гарантируется только в вычисленных точках, между ними допускается небольшое превышение
+    @Test
+    void adaptiveTabulationStaysCloseToFunction() {
+        Function chirp = Functions.composition(Functions.scale(Functions.power(new Identity(), 2), 1, 50), new Sin());
+        for (double maxError : new double[] {1e-2, 1e-4, 1e-6}) {
+            assertTrue(adaptiveError(new Sin(), 0, 10, maxError) <= 1.5 * maxError);
+            assertTrue(adaptiveError(new Exp(), 0, 5, maxError) <= 1.5 * maxError);
+            assertTrue(adaptiveError(new Log(Math.E), 1e-3, 2, maxError) <= 1.5 * maxError);
+            assertTrue(adaptiveError(chirp, 0, 2, maxError) <= 1.5 * maxError);
+        }
+    }
+    
+    // Две функции подряд в одном потоке: первая больше блока чтения, вторая маленькая
+    private static String twoFunctions(TabulatedFunction first, TabulatedFunction second) throws IOException {
+        StringWriter out = new StringWriter();
+        TabulatedFunctions.writeTabulatedFunction(first, out);
+        out.write('\n');
+        TabulatedFunctions.writeTabulatedFunction(second, out);
+        return out.toString();
+    }
+    
+    @Test
+    void readsTwoFunctionsInARow() throws IOException {
+        TabulatedFunction first = function(2000, -3.0);
+        TabulatedFunction second = function(5, 100.0);
+        String text = twoFunctions(first, second);
+        
+        Reader[] readers = {
+            new StringReader(text),
+            new BufferedReader(new StringReader(text)),
+            new BufferedReader(new StringReader(text), 16)
+        };
+        for (Reader in : readers) {
+            assertSamePoints(first, TabulatedFunctions.readTabulatedFunction(in));
+            assertSamePoints(second, TabulatedFunctions.readTabulatedFunction(in));
+            assertEquals(-1, in.read());
+        }
+    }
+    
+    // Поток без mark/reset читается блоками: первая функция читается целиком, остаток не гарантирован
+    @Test
+    void readsFromReaderWithoutMark() throws IOException {
+        TabulatedFunction first = function(2000, -3.0);
+        Reader in = new PlainReader(new StringReader(twoFunctions(first, function(5, 100.0))));
+        assertSamePoints(first, TabulatedFunctions.readTabulatedFunction(in));
+    }
+    
+    // После последнего числа в потоке остаётся всё, что за ним записано
+    @Test
+    void leavesTextAfterLastNumber() throws IOException {
+        StringWriter out = new StringWriter();
+        TabulatedFunctions.writeTabulatedFunction(function(3, 0.0), out);
+        out.write(" tail");
+        
+        StringReader in = new StringReader(out.toString());
+        TabulatedFunctions.readTabulatedFunction(in);
+        char[] rest = new char[5];
+        assertEquals(5, in.read(rest));
+        assertEquals(" tail", new String(rest));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,145 @@
+package functions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// Блоки по 64 точки, заполнение 48 при построении, слияние ниже 16: каждая операция
+// сравнивается с ArrayTabulatedFunction, пока функция растёт и сжимается через границы блоков
+class UnrolledTabulatedFunctionTest {
+    private interface Operation {
+        Object apply(TabulatedFunction function) throws Exception;
+    }
+    
+    // Результат операции или класс брошенного исключения
+    private static Object outcome(Operation operation, TabulatedFunction function) {
+        try {
+            Object result = operation.apply(function);
+            return (result instanceof double[]) ? Arrays.toString((double[]) result) : result;
+        } catch (Exception e) {
+            return e.getClass();
+        }
+    }
+    
+    private static void assertSamePoints(TabulatedFunction expected, TabulatedFunction actual, String message) {
+        assertEquals(expected.getPointCount(), actual.getPointCount(), message);
+        for (int i = 0; i < expected.getPointCount(); i++) {
+            assertEquals(expected.getPointX(i), actual.getPointX(i), message);
+            assertEquals(expected.getPointY(i), actual.getPointY(i), message);
+        }
+        assertEquals(expected.getLeftDomainBorder(), actual.getLeftDomainBorder(), message);
+        assertEquals(expected.getRightDomainBorder(), actual.getRightDomainBorder(), message);
+    }
+    
+    // Случайная операция; addWeight из 10 задаёт долю вставок среди изменений
+    private static Operation randomOperation(Random random, int pointCount, int addWeight) {
+        int index = random.nextInt(pointCount + 2) - 1;
+        double x = random.nextInt(40000) * 0.05 - 500;
+        double y = random.nextInt(1000);
+        int kind = random.nextInt(10);
+        
+        if (kind < 4) {
+            if (random.nextInt(10) < addWeight) {
+                switch (random.nextInt(8)) {
+                    case 0:
+                    case 1:
+                    case 2:
+                        return f -> {
+                            f.addPoint(new FunctionPoint(x, y));
+                            return null;
+                        };
+                    case 3:
+                    case 4:
+                    case 5:
+                    case 6:
+                        double[] xs = {x, x + 0.025, x - 7.5, random.nextInt(100) * 0.05};
+                        double[] ys = {y, -y, 2 * y, 0};
+                        return f -> {
+                            f.addPoints(xs, ys);
+                            return null;
+                        };
+                    default:
+                        // Плотная вставка в одно место, чтобы блок переполнился и разделился
+                        return f -> {
+                            for (int k = 0; k < 70; k++) {
+                                f.addPoint(new FunctionPoint(x + k * 1e-4, k));
+                            }
+                            return null;
+                        };
+                }
+            }
+            if (random.nextBoolean()) {
+                // Удаление подряд идущих точек опустошает блок и вызывает слияние
+                return f -> {
+                    for (int k = 0; k < 20; k++) {
+                        f.deletePoint(Math.min(Math.max(index, 0), f.getPointCount() - 1));
+                    }
+                    return null;
+                };
+            }
+            return f -> {
+                f.deletePoint(index);
+                return null;
+            };
+        }
+        switch (kind) {
+            case 4:
+                return f -> {
+                    f.setPointX(index, x);
+                    return null;
+                };
+            case 5:
+                return f -> {
+                    f.setPointY(index, y);
+                    return null;
+                };
+            case 6:
+                return f -> {
+                    f.setPoint(index, new FunctionPoint(x, y));
+                    return null;
+                };
+            case 7:
+                return f -> f.getPointX(index) + " " + f.getPointY(index) + " " + f.getPoint(index);
+            case 8:
+                return f -> f.getFunctionValue(x);
+            default:
+                int length = random.nextInt(130);
+                return f -> {
+                    double[] xs = new double[length];
+                    double[] ys = new double[length];
+                    f.copyPoints(xs, ys, index, length);
+                    return Arrays.toString(xs) + Arrays.toString(ys);
+                };
+        }
+    }
+    
+    @Test
+    void churnMatchesArrayImplementation() {
+        Random random = new Random(1);
+        double[] xValues = new double[200];
+        double[] yValues = new double[200];
+        for (int i = 0; i < xValues.length; i++) {
+            xValues[i] = i;
+            yValues[i] = i % 7;
+        }
+        ArrayTabulatedFunction array = new ArrayTabulatedFunction(xValues, yValues);
+        UnrolledTabulatedFunction unrolled = new UnrolledTabulatedFunction(xValues, yValues);
+        
+        // Рост до тысяч точек, сжатие до минимума и снова рост
+        int[] addWeights = {8, 1, 8, 1, 5};
+        int step = 0;
+        for (int addWeight : addWeights) {
+            for (int i = 0; i < 2000; i++, step++) {
+                Operation operation = randomOperation(random, array.getPointCount(), addWeight);
+                String message = "step " + step;
+                assertEquals(outcome(operation, array), outcome(operation, unrolled), message);
+                if (step % 16 == 0) {
+                    assertSamePoints(array, unrolled, message);
+                }
+            }
+            assertSamePoints(array, unrolled, "after phase " + addWeight);
+        }
+    }
+}
\ No newline at end of file
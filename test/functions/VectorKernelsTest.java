@@ -0,0 +1,135 @@
+package functions;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.DoubleUnaryOperator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Точность SimdKernels (см. VectorKernels); запуск: mvn -Pvector -Dfunctions.vector=true test
+class VectorKernelsTest {
+    // Не кратно длине вектора, чтобы проверялся и скалярный хвост
+    private static final int SIZE = 100003;
+    
+    private VectorKernels kernels;
+    
+    @BeforeEach
+    void loadKernels() {
+        kernels = VectorKernels.get();
+        assumeTrue(kernels != null, "SIMD kernels are disabled");
+    }
+    
+    private static double[] uniform(Random random, double from, double to) {
+        double[] xs = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            xs[i] = from + (to - from) * random.nextDouble();
+        }
+        return xs;
+    }
+    
+    // Случайные значения с равномерно распределённым показателем, плюс особые значения
+    private static double[] logUniform(Random random, double maxExponent) {
+        double[] xs = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            xs[i] = Math.pow(2, (2 * random.nextDouble() - 1) * maxExponent);
+        }
+        double[] special = {0.0, -0.0, -1.0, 1.0, Double.MIN_VALUE, Double.MAX_VALUE,
+                            Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NaN};
+        System.arraycopy(special, 0, xs, 0, special.length);
+        return xs;
+    }
+    
+    private static void assertWithinUlp(double[] xs, double[] actual, DoubleUnaryOperator math) {
+        for (int i = 0; i < xs.length; i++) {
+            double expected = math.applyAsDouble(xs[i]);
+            if (Double.isNaN(expected) || Double.isInfinite(expected)) {
+                assertEquals(expected, actual[i], "x = " + xs[i]);
+            } else {
+                assertEquals(expected, actual[i], Math.ulp(expected), "x = " + xs[i]);
+            }
+        }
+    }
+    
+    @Test
+    void sinCosTanAreWithinOneUlp() {
+        Random random = new Random(1);
+        double[] out = new double[SIZE];
+        for (double range : new double[] {1, 100, 1e6}) {
+            double[] xs = uniform(random, -range, range);
+            kernels.sin(xs, out);
+            assertWithinUlp(xs, out, Math::sin);
+            kernels.cos(xs, out);
+            assertWithinUlp(xs, out, Math::cos);
+            kernels.tan(xs, out);
+            assertWithinUlp(xs, out, Math::tan);
+        }
+    }
+    
+    @Test
+    void expIsWithinOneUlp() {
+        Random random = new Random(2);
+        double[] out = new double[SIZE];
+        double[] xs = uniform(random, -750, 750);
+        kernels.exp(xs, out);
+        assertWithinUlp(xs, out, Math::exp);
+    }
+    
+    @Test
+    void logIsWithinOneUlp() {
+        Random random = new Random(3);
+        double[] out = new double[SIZE];
+        double[] xs = logUniform(random, 1000);
+        kernels.log(xs, out, 1.0);
+        assertWithinUlp(xs, out, x -> (x <= 0) ? Double.NaN : Math.log(x));
+    }
+    
+    // Абсциссы в порядке возрастания и вперемешку, с узлами таблицы и точками вне отрезка
+    private static double[] abscissas(Random random, TabulatedFunction function, boolean sorted) {
+        double left = function.getLeftDomainBorder();
+        double right = function.getRightDomainBorder();
+        double margin = (right - left) / 10;
+        double[] xs = uniform(random, left - margin, right + margin);
+        for (int i = 0; i < function.getPointCount(); i++) {
+            xs[i] = function.getPointX(i);
+        }
+        if (sorted) {
+            Arrays.sort(xs);
+        }
+        return xs;
+    }
+    
+    private static void assertBitIdentical(TabulatedFunction function, double[] xs) {
+        double[] out = new double[xs.length];
+        function.getFunctionValues(xs, out);
+        for (int i = 0; i < xs.length; i++) {
+            assertEquals(Double.doubleToLongBits(function.getFunctionValue(xs[i])), Double.doubleToLongBits(out[i]),
+                         "x = " + xs[i]);
+        }
+    }
+    
+    @Test
+    void interpolationMatchesScalarBitForBit() {
+        Random random = new Random(4);
+        int pointCount = 1000;
+        double[] xValues = new double[pointCount];
+        double[] yValues = new double[pointCount];
+        double x = -5;
+        for (int i = 0; i < pointCount; i++) {
+            xValues[i] = x;
+            yValues[i] = Math.sin(x) * 1e3;
+            x += 0.001 + 0.02 * random.nextDouble();
+        }
+        
+        TabulatedFunction[] functions = {
+            new ArrayTabulatedFunction(xValues, yValues),
+            new UniformTabulatedFunction(-5, 7, yValues)
+        };
+        for (TabulatedFunction function : functions) {
+            assertBitIdentical(function, abscissas(random, function, true));
+            assertBitIdentical(function, abscissas(random, function, false));
+        }
+    }
+}
\ No newline at end of file
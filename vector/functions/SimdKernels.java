@@ -0,0 +1,145 @@
+package functions;
+
+import jdk.incubator.vector.*;
+
+// Реализация VectorKernels на Vector API (jdk.incubator.vector).
+// Трансцендентные операции на x86 выполняются через SVML-интринсики (погрешность до 1 ulp),
+// интерполяция выполняет те же операции, что и скалярный код, и совпадает с ним побитово.
+final class SimdKernels extends VectorKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INT_SPECIES =
+        VectorSpecies.of(int.class, VectorShape.forBitSize(SPECIES.vectorBitSize() / 2));
+    
+    // Операция передаётся в lanewise константой: иначе JIT не заменяет её интринсиком
+    @Override
+    public void sin(double[] xs, double[] out) {
+        int n = xs.length;
+        int i = 0;
+        for (int bound = SPECIES.loopBound(n); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, xs, i).lanewise(VectorOperators.SIN).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = Math.sin(xs[i]);
+        }
+    }
+    
+    @Override
+    public void cos(double[] xs, double[] out) {
+        int n = xs.length;
+        int i = 0;
+        for (int bound = SPECIES.loopBound(n); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, xs, i).lanewise(VectorOperators.COS).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = Math.cos(xs[i]);
+        }
+    }
+    
+    @Override
+    public void tan(double[] xs, double[] out) {
+        int n = xs.length;
+        int i = 0;
+        for (int bound = SPECIES.loopBound(n); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, xs, i).lanewise(VectorOperators.TAN).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = Math.tan(xs[i]);
+        }
+    }
+    
+    @Override
+    public void exp(double[] xs, double[] out) {
+        int n = xs.length;
+        int i = 0;
+        for (int bound = SPECIES.loopBound(n); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, xs, i).lanewise(VectorOperators.EXP).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = Math.exp(xs[i]);
+        }
+    }
+    
+    @Override
+    public void log(double[] xs, double[] out, double logBase) {
+        int n = xs.length;
+        int i = 0;
+        for (int bound = SPECIES.loopBound(n); i < bound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, xs, i);
+            DoubleVector y = x.lanewise(VectorOperators.LOG).div(logBase);
+            y.blend(Double.NaN, x.compare(VectorOperators.LE, 0.0)).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = (xs[i] <= 0) ? Double.NaN : Math.log(xs[i]) / logBase;
+        }
+    }
+    
+    @Override
+    void interpolate(double[] xs, double[] out, int[] segments,
+                     double[] xValues, double[] yValues, double left, double right) {
+        int n = xs.length;
+        int i = 0;
+        for (int bound = SPECIES.loopBound(n); i < bound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, xs, i);
+            DoubleVector x1 = DoubleVector.fromArray(SPECIES, xValues, 0, segments, i);
+            DoubleVector x2 = DoubleVector.fromArray(SPECIES, xValues, 1, segments, i);
+            DoubleVector y1 = DoubleVector.fromArray(SPECIES, yValues, 0, segments, i);
+            DoubleVector y2 = DoubleVector.fromArray(SPECIES, yValues, 1, segments, i);
+            combine(x, x1, y1, x2, y2, left, right).intoArray(out, i);
+        }
+        interpolateTail(xs, out, segments, i, xValues, yValues, left, right);
+    }
+    
+    @Override
+    void interpolateUniform(double[] xs, double[] out, int[] segments,
+                            double leftX, double step, double[] yValues, double left, double right) {
+        int n = xs.length;
+        int i = 0;
+        for (int bound = SPECIES.loopBound(n); i < bound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, xs, i);
+            DoubleVector index = (DoubleVector) IntVector.fromArray(INT_SPECIES, segments, i)
+                .convertShape(VectorOperators.I2D, SPECIES, 0);
+            DoubleVector x1 = index.mul(step).add(leftX);
+            DoubleVector x2 = index.add(1.0).mul(step).add(leftX);
+            DoubleVector y1 = DoubleVector.fromArray(SPECIES, yValues, 0, segments, i);
+            DoubleVector y2 = DoubleVector.fromArray(SPECIES, yValues, 1, segments, i);
+            combine(x, x1, y1, x2, y2, left, right).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            double x = xs[i];
+            double x1 = leftX + segments[i] * step;
+            double x2 = leftX + (segments[i] + 1) * step;
+            out[i] = interpolate(x, x1, yValues[segments[i]], x2, yValues[segments[i] + 1], left, right);
+        }
+    }
+    
+    // Формула и проверки из getFunctionValue, выполненные над всеми полосами сразу
+    private static DoubleVector combine(DoubleVector x, DoubleVector x1, DoubleVector y1,
+                                        DoubleVector x2, DoubleVector y2, double left, double right) {
+        DoubleVector y = y2.sub(y1).mul(x.sub(x1)).div(x2.sub(x1)).add(y1);
+        y = y.blend(y2, x.sub(x2).abs().compare(VectorOperators.LT, FunctionPoint.EPS));
+        y = y.blend(y1, x.sub(x1).abs().compare(VectorOperators.LT, FunctionPoint.EPS));
+        VectorMask<Double> outside = x.compare(VectorOperators.LT, left).or(x.compare(VectorOperators.GT, right));
+        return y.blend(Double.NaN, outside);
+    }
+    
+    private static void interpolateTail(double[] xs, double[] out, int[] segments, int from,
+                                        double[] xValues, double[] yValues, double left, double right) {
+        for (int i = from; i < xs.length; i++) {
+            int k = segments[i];
+            out[i] = interpolate(xs[i], xValues[k], yValues[k], xValues[k + 1], yValues[k + 1], left, right);
+        }
+    }
+    
+    private static double interpolate(double x, double x1, double y1, double x2, double y2, double left, double right) {
+        if (x < left || x > right) {
+            return Double.NaN;
+        }
+        if (FunctionPoint.equals(x, x1)) {
+            return y1;
+        }
+        if (FunctionPoint.equals(x, x2)) {
+            return y2;
+        }
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+}
\ No newline at end of file